@@ -4,8 +4,10 @@ import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import io.swagger.v3.oas.annotations.info.Info;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 
-@SpringBootApplication
+// R2DBC is only used by the reactive read API, which builds its own connection pool
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 @OpenAPIDefinition(info = @Info(title = "BU Credit API"))
 public class BuCreditApplication {
 
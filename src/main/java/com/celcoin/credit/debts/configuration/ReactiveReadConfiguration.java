@@ -0,0 +1,57 @@
+package com.celcoin.credit.debts.configuration;
+
+import com.celcoin.credit.debts.controller.ReactiveDebtHandler;
+import com.celcoin.credit.debts.repository.ReactiveDebtRepository;
+import com.celcoin.credit.debts.service.ReactiveDebtService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.postgresql.PostgresqlConnectionFactoryProvider;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * Starts the reactive read API when bu-credit.reactive.enabled is true. The R2DBC pool and DatabaseClient are kept out
+ * of the application context on purpose: as beans they would switch on Spring Boot's R2DBC auto-configuration and a
+ * second transaction manager next to the JPA one.
+ */
+@Configuration
+@ConditionalOnProperty(name = "bu-credit.reactive.enabled", havingValue = "true")
+public class ReactiveReadConfiguration {
+
+    @Bean
+    public ReactiveReadServer reactiveReadServer(ObjectMapper objectMapper,
+                                                 @Value("${bu-credit.reactive.port}") int port,
+                                                 @Value("${bu-credit.reactive.event-loop-threads:4}") int eventLoopThreads,
+                                                 @Value("${bu-credit.reactive.r2dbc.url}") String url,
+                                                 @Value("${bu-credit.reactive.r2dbc.pool-size:10}") int poolSize,
+                                                 @Value("${spring.datasource.username}") String username,
+                                                 @Value("${spring.datasource.password}") String password,
+                                                 @Value("${spring.datasource.hikari.schema}") String schema){
+
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url)
+                                                                   .mutate()
+                                                                   .option(ConnectionFactoryOptions.USER, username)
+                                                                   .option(ConnectionFactoryOptions.PASSWORD, password)
+                                                                   .option(PostgresqlConnectionFactoryProvider.SCHEMA, schema)
+                                                                   .build();
+
+        ConnectionPool connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                                                                                      .maxSize(poolSize)
+                                                                                      .build());
+
+        ReactiveDebtService reactiveDebtService = new ReactiveDebtService(
+                new ReactiveDebtRepository(DatabaseClient.create(connectionPool)));
+
+        return new ReactiveReadServer(port,
+                                      eventLoopThreads,
+                                      new ReactiveDebtHandler(reactiveDebtService).routes(),
+                                      objectMapper,
+                                      connectionPool);
+    }
+}
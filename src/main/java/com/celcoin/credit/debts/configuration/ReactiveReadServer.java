@@ -0,0 +1,85 @@
+package com.celcoin.credit.debts.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.pool.ConnectionPool;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * Reactor Netty server for the reactive read API, on its own port and event loop threads next to Tomcat. It owns
+ * the R2DBC connection pool, which is closed with the server.
+ */
+public class ReactiveReadServer implements SmartLifecycle {
+
+    private final int port;
+    private final int eventLoopThreads;
+    private final RouterFunction<ServerResponse> routes;
+    private final ObjectMapper objectMapper;
+    private final ConnectionPool connectionPool;
+
+    private LoopResources loopResources;
+    private DisposableServer server;
+
+    public ReactiveReadServer(int port,
+                              int eventLoopThreads,
+                              RouterFunction<ServerResponse> routes,
+                              ObjectMapper objectMapper,
+                              ConnectionPool connectionPool){
+        this.port = port;
+        this.eventLoopThreads = eventLoopThreads;
+        this.routes = routes;
+        this.objectMapper = objectMapper;
+        this.connectionPool = connectionPool;
+    }
+
+    @Override
+    public void start(){
+
+        // Same ObjectMapper as Spring MVC, so both APIs write identical JSON
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .build();
+
+        loopResources = LoopResources.create("bu-credit-reactive", eventLoopThreads, true);
+        server = HttpServer.create()
+                           .port(port)
+                           .runOn(loopResources)
+                           .handle(new ReactorHttpHandlerAdapter(RouterFunctions.toHttpHandler(routes, strategies)))
+                           .bindNow();
+    }
+
+    @Override
+    public void stop(){
+
+        if(server != null){
+            server.disposeNow();
+            server = null;
+        }
+        if(loopResources != null){
+            loopResources.disposeLater().block();
+            loopResources = null;
+        }
+        connectionPool.dispose();
+    }
+
+    @Override
+    public boolean isRunning(){
+        return server != null;
+    }
+
+    public int getPort(){
+        return server == null ? port : server.port();
+    }
+}
@@ -0,0 +1,30 @@
+package com.celcoin.credit.debts.configuration;
+
+import lombok.Getter;
+
+/**
+ * JDBC work done on behalf of one HTTP request: statements executed (a batch counts once), rows read from their
+ * result sets and time spent executing them.
+ */
+@Getter
+public class RequestStatements {
+
+    private int statements;
+    private long rows;
+    private long databaseNanos;
+
+    private long statementStart;
+
+    void statementStarted(){
+        statementStart = System.nanoTime();
+    }
+
+    void statementEnded(){
+        statements++;
+        databaseNanos += System.nanoTime() - statementStart;
+    }
+
+    void rowRead(){
+        rows++;
+    }
+}
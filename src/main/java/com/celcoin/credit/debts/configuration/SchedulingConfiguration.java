@@ -0,0 +1,14 @@
+package com.celcoin.credit.debts.configuration;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Runs the background jobs, such as the overdue sweep, unless bu-credit.overdue-sweep.enabled is false.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "bu-credit.overdue-sweep.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfiguration {
+}
@@ -0,0 +1,113 @@
+package com.celcoin.credit.debts.configuration;
+
+import com.celcoin.credit.debts.controller.StatementBudget;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the SQL statements of every request to a controller method and publishes them per endpoint, next to
+ * http.server.requests: statements, rows read (when counted) and database time, and the requests over the
+ * {@link StatementBudget} of the endpoint. Responses streamed on another thread, such as the export, are not counted.
+ */
+public class StatementBudgetInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String STATEMENTS = "http.server.requests.statements";
+    public static final String ROWS = "http.server.requests.rows";
+    public static final String DATABASE_TIME = "http.server.requests.database";
+    public static final String OVER_BUDGET = "http.server.requests.statements.over.budget";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean countRows;
+    private final Map<Method, EndpointMeters> endpoints = new ConcurrentHashMap<>();
+
+    public StatementBudgetInterceptor(MeterRegistry meterRegistry, boolean countRows){
+        this.meterRegistry = meterRegistry;
+        this.countRows = countRows;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler){
+
+        if(handler instanceof HandlerMethod && request.getDispatcherType() != DispatcherType.ASYNC){
+            StatementCounter.start();
+        }
+
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler){
+        StatementCounter.stop();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex){
+
+        RequestStatements statements = StatementCounter.stop();
+        if(statements == null){
+            return;
+        }
+
+        HandlerMethod handlerMethod = (HandlerMethod) handler;
+        EndpointMeters meters = endpoints.computeIfAbsent(handlerMethod.getMethod(),
+                                                          method -> new EndpointMeters(request, handlerMethod));
+
+        meters.statements.record(statements.getStatements());
+        if(meters.rows != null){
+            meters.rows.record(statements.getRows());
+        }
+        meters.databaseTime.record(statements.getDatabaseNanos(), TimeUnit.NANOSECONDS);
+        if(meters.budget >= 0 && statements.getStatements() > meters.budget){
+            meters.overBudget.increment();
+        }
+    }
+
+    private class EndpointMeters {
+
+        private final int budget;
+        private final DistributionSummary statements;
+        private final DistributionSummary rows;
+        private final Timer databaseTime;
+        private final Counter overBudget;
+
+        private EndpointMeters(HttpServletRequest request, HandlerMethod handlerMethod){
+
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            Tags tags = Tags.of("method", request.getMethod(), "uri", pattern == null ? "UNKNOWN" : pattern.toString());
+            StatementBudget statementBudget = handlerMethod.getMethodAnnotation(StatementBudget.class);
+
+            this.budget = statementBudget == null ? -1 : statementBudget.value();
+            this.statements = DistributionSummary.builder(STATEMENTS)
+                                                 .tags(tags)
+                                                 .description("SQL statements executed by a request")
+                                                 .register(meterRegistry);
+            this.rows = countRows ? DistributionSummary.builder(ROWS)
+                                                       .tags(tags)
+                                                       .description("Rows read from the result sets of a request")
+                                                       .register(meterRegistry)
+                                  : null;
+            this.databaseTime = Timer.builder(DATABASE_TIME)
+                                     .tags(tags)
+                                     .description("Time a request spent executing SQL statements")
+                                     .register(meterRegistry);
+            this.overBudget = Counter.builder(OVER_BUDGET)
+                                     .tags(tags)
+                                     .description("Requests that executed more statements than the budget of the endpoint")
+                                     .register(meterRegistry);
+        }
+    }
+}
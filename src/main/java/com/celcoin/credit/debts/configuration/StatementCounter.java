@@ -0,0 +1,67 @@
+package com.celcoin.credit.debts.configuration;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+/**
+ * Listener of the proxied DataSource that adds the statements of the current thread to the {@link RequestStatements}
+ * started on it. Statements run outside a request, such as migrations and the overdue sweep, are not counted.
+ */
+public class StatementCounter implements QueryExecutionListener, MethodExecutionListener {
+
+    private static final ThreadLocal<RequestStatements> CURRENT = new ThreadLocal<>();
+
+    public static void start(){
+        CURRENT.set(new RequestStatements());
+    }
+
+    /**
+     * Ends the count of the current thread and returns it, null when none was started.
+     */
+    public static RequestStatements stop(){
+
+        RequestStatements statements = CURRENT.get();
+        CURRENT.remove();
+
+        return statements;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList){
+
+        RequestStatements statements = CURRENT.get();
+        if(statements != null){
+            statements.statementStarted();
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList){
+
+        RequestStatements statements = CURRENT.get();
+        if(statements != null){
+            statements.statementEnded();
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext){
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext){
+
+        RequestStatements statements = CURRENT.get();
+        if(statements != null && executionContext.getTarget() instanceof ResultSet
+                && Boolean.TRUE.equals(executionContext.getResult())
+                && "next".equals(executionContext.getMethod().getName())){
+            statements.rowRead();
+        }
+    }
+}
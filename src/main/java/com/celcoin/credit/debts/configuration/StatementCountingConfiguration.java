@@ -0,0 +1,64 @@
+package com.celcoin.credit.debts.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * Counts the SQL statements of each HTTP request, unless bu-credit.statement-budget.enabled is false. The DataSource is
+ * wrapped by datasource-proxy, whose listener hands the statements of a request thread to
+ * {@link StatementBudgetInterceptor}. Only statement executions are listened to, unless
+ * bu-credit.statement-budget.count-rows is true: counting rows proxies every result set and dispatches each of its
+ * calls, such as every getter of the export's streaming loop, to the listener.
+ */
+@Configuration
+@ConditionalOnProperty(name = "bu-credit.statement-budget.enabled", havingValue = "true", matchIfMissing = true)
+public class StatementCountingConfiguration {
+
+    @Bean
+    public static BeanPostProcessor statementCountingDataSourcePostProcessor(
+            @Value("${bu-credit.statement-budget.count-rows:false}") boolean countRows){
+
+        StatementCounter counter = new StatementCounter();
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName){
+
+                if(!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource){
+                    return bean;
+                }
+
+                ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(beanName, dataSource).listener(counter);
+                if(countRows){
+                    builder.methodListener(counter).proxyResultSet();
+                }
+
+                return builder.build();
+            }
+        };
+    }
+
+    @Bean
+    public WebMvcConfigurer statementBudgetConfigurer(MeterRegistry meterRegistry,
+                                                      @Value("${bu-credit.statement-budget.count-rows:false}") boolean countRows){
+
+        StatementBudgetInterceptor interceptor = new StatementBudgetInterceptor(meterRegistry, countRows);
+
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry){
+                registry.addInterceptor(interceptor);
+            }
+        };
+    }
+}
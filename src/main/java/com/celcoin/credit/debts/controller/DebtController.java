@@ -2,13 +2,38 @@ package com.celcoin.credit.debts.controller;
 
 import com.celcoin.credit.debts.entity.Debt;
 import com.celcoin.credit.debts.entity.Installment;
+import com.celcoin.credit.debts.mapper.DebtMapper;
+import com.celcoin.credit.debts.service.DebtBulkRegistrationService;
+import com.celcoin.credit.debts.service.DebtExportService;
+import com.celcoin.credit.debts.service.DebtResponseCache;
 import com.celcoin.credit.debts.service.DebtService;
+import com.celcoin.credit.debts.service.DebtSummaryCache;
+import com.celcoin.credit.debts.service.IdempotentPaymentService;
+import com.celcoin.credit.debts.service.InstallmentBatchService;
+import com.celcoin.credit.debts.valueobject.BatchPayInstallmentRequest;
+import com.celcoin.credit.debts.valueobject.BatchPayInstallmentResponse;
+import com.celcoin.credit.debts.valueobject.BulkRegisterDebtResponse;
+import com.celcoin.credit.debts.valueobject.BulkRegistrationResult;
+import com.celcoin.credit.debts.valueobject.DebtCursor;
+import com.celcoin.credit.debts.valueobject.DebtField;
+import com.celcoin.credit.debts.valueobject.DebtFilter;
+import com.celcoin.credit.debts.valueobject.DebtPage;
 import com.celcoin.credit.debts.valueobject.DebtResponse;
+import com.celcoin.credit.debts.valueobject.DebtResponsePage;
+import com.celcoin.credit.debts.valueobject.DebtSort;
+import com.celcoin.credit.debts.valueobject.DebtSummaryResponse;
+import com.celcoin.credit.debts.valueobject.ExportFormat;
+import com.celcoin.credit.debts.valueobject.InstallmentBatchResult;
 import com.celcoin.credit.debts.valueobject.InstallmentResponse;
 import com.celcoin.credit.debts.valueobject.PayInstallmentRequest;
 import com.celcoin.credit.debts.valueobject.RegisterDebtRequest;
+import com.celcoin.credit.error.BuCreditExceptionHandler;
 import com.celcoin.credit.error.ErrorResponse;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -16,14 +41,28 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.time.LocalDate;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Tag(name = "Debts")
@@ -32,44 +71,226 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class DebtController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 500;
+    static final String FIELDS_DESCRIPTION = "Comma separated fields to return, only their columns are read. " +
+                                             "id and updatedAt are always returned, installments only when listed or included";
+    static final String SORT_DESCRIPTION = "dueDate, createdAt or balanceDue, descending with a leading '-'. " +
+                                           "Cursors are only valid for the sort they were returned with";
+    static final String INCLUDE_DESCRIPTION = "'installments' to add the installments to the requested fields";
+    private static final Set<DebtField> VERSION_FIELDS = EnumSet.of(DebtField.ID, DebtField.UPDATED_AT);
+    // The formats of the debt reads, in the order of their message converters
+    private static final List<MediaType> DEBT_FORMATS = List.of(MediaType.APPLICATION_JSON,
+                                                                MediaType.APPLICATION_CBOR,
+                                                                MediaType.valueOf("application/x-jackson-smile"));
+
     private final DebtService debtService;
-    private final ModelMapper mapper;
+    private final InstallmentBatchService installmentBatchService;
+    private final DebtBulkRegistrationService debtBulkRegistrationService;
+    private final DebtExportService debtExportService;
+    private final IdempotentPaymentService idempotentPaymentService;
+    private final DebtResponseCache debtResponseCache;
+    private final DebtSummaryCache debtSummaryCache;
+    private final ObjectMapper objectMapper;
+    private final ContentNegotiationManager contentNegotiationManager;
 
-    @Operation(summary = "Get a list of all debts")
+    @Operation(summary = "Get a page of debts ordered by due date, creation or balance due")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Returns the debts",
+                    headers = { @Header(name = NEXT_CURSOR_HEADER,
+                            description = "Cursor to pass as 'after' to fetch the next page, absent on the last page"),
+                                @Header(name = HttpHeaders.ETAG,
+                            description = "Version of the page, to pass as If-None-Match")},
+                    content = { @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = DebtResponse.class))),
+                                @Content(mediaType = "application/cbor",
+                            array = @ArraySchema(schema = @Schema(implementation = DebtResponse.class))),
+                                @Content(mediaType = "application/x-jackson-smile",
+                            array = @ArraySchema(schema = @Schema(implementation = DebtResponse.class)))}),
+            @ApiResponse(responseCode = "304", description = "No debt of the page changed since the If-None-Match ETag"),
+            @ApiResponse(responseCode = "400", description = "Invalid limit/sort/cursor/fields",
                     content = { @Content(mediaType = "application/json",
-                            array = @ArraySchema(schema = @Schema(implementation = DebtResponse.class)))})
+                            schema = @Schema(implementation = ErrorResponse.class))})
     })
+    @StatementBudget(3)
     @GetMapping
-    public ResponseEntity<List<DebtResponse>> getDebts(@RequestParam(required = false) String creditorName,
-                                                       @RequestParam(required = false) LocalDate dueDate,
-                                                       @RequestParam(required = false) Integer statusId){
+    public ResponseEntity<List<DebtResponse>> getDebts(@ParameterObject DebtFilter filter,
+                                                       @Parameter(description = SORT_DESCRIPTION)
+                                                       @RequestParam(defaultValue = "dueDate")
+                                                       @Pattern(regexp = DebtSort.PATTERN) String sort,
+                                                       @RequestParam(required = false) String after,
+                                                       @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE)
+                                                       @Min(1) @Max(MAX_PAGE_SIZE) Integer limit,
+                                                       @Parameter(description = FIELDS_DESCRIPTION)
+                                                       @RequestParam(required = false) String fields,
+                                                       @Parameter(description = INCLUDE_DESCRIPTION)
+                                                       @RequestParam(required = false) String include,
+                                                       ServletWebRequest request){
+
+        DebtSort debtSort = DebtSort.fromParameter(sort);
+        DebtCursor cursor = after == null ? null : DebtCursor.decode(after, debtSort);
+        Set<DebtField> selected = fields == null && include == null ? null : DebtField.parse(fields, include);
+        String query = canonicalQuery(request);
+        MediaType format = negotiatedFormat(request);
+
+        // Polling clients are answered from the ids and versions of the page, its debts are read only when one changed
+        if(request.getHeader(HttpHeaders.IF_NONE_MATCH) != null){
+            DebtResponsePage versions = debtService.getDebtResponses(filter, debtSort, cursor, limit, VERSION_FIELDS);
+            if(notModified(request, DebtETags.ofPage(query, versions.getDebts(), versions.getNextCursor(), format))){
+                return null;
+            }
+        }
 
-        List<Debt> debts = debtService.getDebts(creditorName, dueDate, statusId);
-        List<DebtResponse> response = debts.stream()
-                .map(debt -> mapper.map(debt, DebtResponse.class))
+        if(selected != null){
+            DebtResponsePage page = debtService.getDebtResponses(filter, debtSort, cursor, limit, selected);
+            return okPage(query, format, page.getDebts(), page.getNextCursor());
+        }
+
+        DebtPage page = debtService.getDebts(filter, debtSort, cursor, limit);
+        List<DebtResponse> response = page.getDebts().stream()
+                .map(DebtMapper::toDebtResponse)
                 .collect(Collectors.toList());
 
+        return okPage(query, format, response, page.getNextCursor());
+    }
+
+    private static ResponseEntity<List<DebtResponse>> okPage(String query, MediaType format, List<DebtResponse> debts,
+                                                             DebtCursor nextCursor){
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                                                           .eTag(DebtETags.ofPage(query, debts, nextCursor, format))
+                                                           .varyBy(HttpHeaders.ACCEPT);
+        if(nextCursor != null){
+            builder.header(NEXT_CURSOR_HEADER, nextCursor.encode());
+        }
+
+        return builder.body(debts);
+    }
+
+    // Same parameters in any order are the same page
+    private static String canonicalQuery(ServletWebRequest request){
+        return new TreeMap<>(request.getParameterMap()).entrySet()
+                                                        .stream()
+                                                        .map(parameter -> parameter.getKey() + "=" +
+                                                                          String.join(",", parameter.getValue()))
+                                                        .collect(Collectors.joining("&"));
+    }
+
+    // The format the message converters will write the debts as, so it's known before the ETag pre-checks
+    private MediaType negotiatedFormat(ServletWebRequest request){
+
+        try{
+            for(MediaType accepted : contentNegotiationManager.resolveMediaTypes(request)){
+                for(MediaType format : DEBT_FORMATS){
+                    if(accepted.isCompatibleWith(format)){
+                        return format;
+                    }
+                }
+            }
+        }catch(HttpMediaTypeNotAcceptableException e){
+            // An Accept header that can't be parsed is answered 406 by the message converters
+        }
+
+        return MediaType.APPLICATION_JSON;
+    }
+
+    private static boolean notModified(ServletWebRequest request, String eTag){
+        return eTag != null && request.checkNotModified(eTag);
+    }
+
+    @Operation(summary = "Export every debt matching the filters, with its installments, as NDJSON or CSV")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Streams the debts in dueDate order",
+                    content = { @Content(mediaType = "application/x-ndjson",
+                            schema = @Schema(implementation = DebtResponse.class)),
+                                @Content(mediaType = "text/csv")}),
+            @ApiResponse(responseCode = "400", description = "Invalid format",
+                    content = { @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))})
+    })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportDebts(@ParameterObject DebtFilter filter,
+                                                             @RequestParam(defaultValue = "ndjson")
+                                                             @Pattern(regexp = "ndjson|csv") String format){
+
+        ExportFormat exportFormat = ExportFormat.valueOf(format.toUpperCase());
+
+        if(exportFormat == ExportFormat.CSV){
+            return ResponseEntity.ok()
+                                 .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+                                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=debts.csv")
+                                 .body(out -> debtExportService.exportCsv(filter, out));
+        }
+
+        return ResponseEntity.ok()
+                             .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+                             .body(out -> debtExportService.exportNdjson(filter, out));
+    }
+
+    @Operation(summary = "Get the count, total value and balance due of the debts per status and creditor, " +
+                         "and the aging of the overdue debts")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Returns the summary",
+                    content = { @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = DebtSummaryResponse.class))})
+    })
+    @StatementBudget(3)
+    @GetMapping("/summary")
+    public ResponseEntity<DebtSummaryResponse> getSummary(){
+
+        DebtSummaryResponse response = debtSummaryCache.getSummary();
+
         return ResponseEntity.ok(response);
     }
 
     @Operation(summary = "Get the debt with the specified id")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Returns the debt",
+                    headers = { @Header(name = HttpHeaders.ETAG,
+                            description = "Version of the debt, to pass as If-None-Match")},
                     content = { @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = DebtResponse.class)),
+                                @Content(mediaType = "application/cbor",
+                            schema = @Schema(implementation = DebtResponse.class)),
+                                @Content(mediaType = "application/x-jackson-smile",
                             schema = @Schema(implementation = DebtResponse.class))}),
+            @ApiResponse(responseCode = "304", description = "The debt didn't change since the If-None-Match ETag"),
+            @ApiResponse(responseCode = "400", description = "Invalid fields",
+                    content = { @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))}),
             @ApiResponse(responseCode = "404", description = "Debt not found",
                     content = { @Content(mediaType = "application/json",
                             schema = @Schema(implementation = ErrorResponse.class))})
     })
+    @StatementBudget(2)
     @GetMapping("/{id}")
-    public ResponseEntity<DebtResponse> getDebt(@PathVariable Long id){
+    public ResponseEntity<DebtResponse> getDebt(@PathVariable Long id,
+                                                @Parameter(description = FIELDS_DESCRIPTION)
+                                                @RequestParam(required = false) String fields,
+                                                @Parameter(description = INCLUDE_DESCRIPTION)
+                                                @RequestParam(required = false) String include,
+                                                ServletWebRequest request){
 
-        Debt debt = debtService.getDebt(id);
-        DebtResponse response = mapper.map(debt, DebtResponse.class);
+        Set<DebtField> selected = fields == null && include == null ? null : DebtField.parse(fields, include);
+        MediaType format = negotiatedFormat(request);
 
-        return ResponseEntity.ok(response);
+        // Polling clients are answered from the version alone, the debt is read and mapped only when it changed
+        if(request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+           && notModified(request, DebtETags.ofDebt(id, debtResponseCache.getVersion(id), selected, format))){
+            return null;
+        }
+
+        // Only whole debts are cached, a projection is read from the database
+        DebtResponse response = selected == null
+                                ? debtResponseCache.getDebt(id)
+                                : debtService.getDebtResponse(id, selected);
+
+        return ResponseEntity.ok()
+                             .eTag(DebtETags.ofDebt(id, response.getUpdatedAt(), selected, format))
+                             .varyBy(HttpHeaders.ACCEPT)
+                             .body(response);
     }
 
     @Operation(summary = "Registers a new debt")
@@ -81,16 +302,45 @@ public class DebtController {
                     content = { @Content(mediaType = "application/json",
                             schema = @Schema(implementation = ErrorResponse.class))})
     })
+    @StatementBudget(4)
     @PostMapping
     public ResponseEntity<DebtResponse> registerDebt(@RequestBody @Valid RegisterDebtRequest request){
 
-        Debt debt = mapper.map(request, Debt.class);
+        Debt debt = DebtMapper.toDebt(request);
         Debt createdDebt = debtService.registerDebt(debt);
-        DebtResponse response = mapper.map(createdDebt, DebtResponse.class);
+        DebtResponse response = DebtMapper.toDebtResponse(createdDebt);
 
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @Operation(summary = "Registers many debts from a JSON array or an NDJSON stream")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "All debts were read, valid ones were registered",
+                    content = { @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BulkRegisterDebtResponse.class))}),
+            @ApiResponse(responseCode = "400", description = "Malformed JSON, debts read before the error were registered",
+                    content = { @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BulkRegisterDebtResponse.class))})
+    })
+    @PostMapping(value = "/bulk", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public ResponseEntity<BulkRegisterDebtResponse> registerDebts(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(content = @Content(
+                    array = @ArraySchema(schema = @Schema(implementation = RegisterDebtRequest.class))))
+            InputStream body) throws IOException {
+
+        BulkRegistrationResult result;
+        try(MappingIterator<RegisterDebtRequest> requests = objectMapper.readerFor(RegisterDebtRequest.class).readValues(body)){
+            result = debtBulkRegistrationService.registerDebts(requests);
+        }
+
+        BulkRegisterDebtResponse response = new BulkRegisterDebtResponse();
+        response.setRegistered(result.getRegistered());
+        response.setRejected(result.getRejected());
+        response.setErrors(result.getErrors());
+
+        return ResponseEntity.status(result.isCompleted() ? HttpStatus.OK : HttpStatus.BAD_REQUEST).body(response);
+    }
+
     @Operation(summary = "Pays a new installment")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Installment payment was successful",
@@ -103,17 +353,67 @@ public class DebtController {
                     content = { @Content(mediaType = "application/json",
                             schema = @Schema(implementation = ErrorResponse.class))}),
             @ApiResponse(responseCode = "409", description = "Debt already paid",
+                    content = { @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))}),
+            @ApiResponse(responseCode = "422", description = "Idempotency key already used to pay another debt",
                     content = { @Content(mediaType = "application/json",
                             schema = @Schema(implementation = ErrorResponse.class))})
     })
+    @StatementBudget(8)
     @PostMapping("/{debtId}/installments")
     public ResponseEntity<InstallmentResponse> payInstallment(@PathVariable Long debtId,
-                                                              @RequestBody @Valid PayInstallmentRequest request){
+                                                              @RequestBody @Valid PayInstallmentRequest request,
+                                                              @Parameter(description = "Retries with the same key " +
+                                                                      "return the first payment instead of paying again")
+                                                              @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false)
+                                                              @Size(min = 1, max = 100) String idempotencyKey){
+
+        Installment installment = DebtMapper.toInstallment(request);
+
+        if(idempotencyKey != null){
+            InstallmentResponse response = idempotentPaymentService.payInstallment(idempotencyKey, debtId, installment);
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        }
 
-        Installment installment = mapper.map(request, Installment.class);
         Installment createdInstallment = debtService.payInstallment(debtId, installment);
-        InstallmentResponse response = mapper.map(createdInstallment, InstallmentResponse.class);
+        InstallmentResponse response = DebtMapper.toInstallmentResponse(createdInstallment);
 
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
+
+    @Operation(summary = "Pays many installments, reporting the outcome of each payment")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Payments were processed, each result carries its own status",
+                    content = { @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = BatchPayInstallmentResponse.class)))}),
+            @ApiResponse(responseCode = "400", description = "Invalid request",
+                    content = { @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))})
+    })
+    @PostMapping("/installments/batch")
+    public ResponseEntity<List<BatchPayInstallmentResponse>> payInstallments(@RequestBody @Valid BatchPayInstallmentRequest request){
+
+        List<InstallmentBatchResult> results = installmentBatchService.payInstallments(request.getPayments());
+        List<BatchPayInstallmentResponse> response = results.stream()
+                .map(DebtController::toBatchResponse)
+                .collect(Collectors.toList());
+
+        return ResponseEntity.ok(response);
+    }
+
+    private static BatchPayInstallmentResponse toBatchResponse(InstallmentBatchResult result){
+
+        BatchPayInstallmentResponse response = new BatchPayInstallmentResponse();
+        response.setDebtId(result.getDebtId());
+
+        if(result.getError() == null){
+            response.setStatus(HttpStatus.CREATED.value());
+            response.setInstallment(DebtMapper.toInstallmentResponse(result.getInstallment()));
+        }else{
+            response.setStatus(BuCreditExceptionHandler.statusOf(result.getError()).value());
+            response.setErrors(List.of(result.getError().getMessage()));
+        }
+
+        return response;
+    }
 }
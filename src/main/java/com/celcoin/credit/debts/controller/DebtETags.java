@@ -0,0 +1,103 @@
+package com.celcoin.credit.debts.controller;
+
+import com.celcoin.credit.debts.valueobject.DebtCursor;
+import com.celcoin.credit.debts.valueobject.DebtField;
+import com.celcoin.credit.debts.valueobject.DebtResponse;
+import org.springframework.http.MediaType;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Strong ETags of the debts API, computed from the id and updatedAt of the debts a response carries, so a polling
+ * client can be answered 304 from the versions alone. updatedAt is truncated to the microseconds the database keeps.
+ * The CBOR and Smile bodies of a version are other bytes than its JSON, so their ETags also carry the format; JSON
+ * ETags are left as they were before the binary formats.
+ */
+final class DebtETags {
+
+    private DebtETags(){}
+
+    /**
+     * @param fields the fields of a projection, or null for the whole debt
+     * @param format the media type the body is written as
+     * @return the ETag, or null when the version is unknown
+     */
+    static String ofDebt(Long id, LocalDateTime updatedAt, Set<DebtField> fields, MediaType format){
+
+        if(updatedAt == null){
+            return null;
+        }
+
+        StringBuilder tag = new StringBuilder("\"").append(id).append('-').append(Long.toString(micros(updatedAt), 36));
+        if(fields != null){
+            int mask = 0;
+            for(DebtField field : fields){
+                mask |= 1 << field.ordinal();
+            }
+            tag.append('-').append(Integer.toString(mask, 36));
+        }
+        if(!isJson(format)){
+            tag.append('.').append(format.getSubtype());
+        }
+
+        return tag.append('"').toString();
+    }
+
+    /**
+     * A digest of the query, the id and version of every debt of the page and the next cursor, so it changes when a
+     * debt of the page changes or a debt enters or leaves it.
+     *
+     * @param format the media type the body is written as
+     * @return the ETag, or null when a version is unknown
+     */
+    static String ofPage(String query, List<DebtResponse> debts, DebtCursor nextCursor, MediaType format){
+
+        MessageDigest digest = sha256();
+        digest.update(query.getBytes(StandardCharsets.UTF_8));
+        if(!isJson(format)){
+            digest.update(format.toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        ByteBuffer versions = ByteBuffer.allocate(Long.BYTES * 2);
+        for(DebtResponse debt : debts){
+            if(debt.getUpdatedAt() == null){
+                return null;
+            }
+            versions.clear();
+            versions.putLong(debt.getId()).putLong(micros(debt.getUpdatedAt()));
+            digest.update(versions.array());
+        }
+        if(nextCursor != null){
+            digest.update(nextCursor.encode().getBytes(StandardCharsets.UTF_8));
+        }
+
+        // 128 bits of the digest are plenty to tell versions of a page apart
+        byte[] hash = Arrays.copyOf(digest.digest(), 16);
+        return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash) + "\"";
+    }
+
+    private static boolean isJson(MediaType format){
+        return MediaType.APPLICATION_JSON.equalsTypeAndSubtype(format);
+    }
+
+    private static long micros(LocalDateTime updatedAt){
+        return updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + updatedAt.getNano() / 1_000;
+    }
+
+    private static MessageDigest sha256(){
+        try{
+            return MessageDigest.getInstance("SHA-256");
+        }catch(NoSuchAlgorithmException e){
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.celcoin.credit.debts.controller;
+
+import com.celcoin.credit.debts.exception.DebtNotFoundException;
+import com.celcoin.credit.debts.exception.InvalidCursorException;
+import com.celcoin.credit.debts.service.ReactiveDebtService;
+import com.celcoin.credit.debts.valueobject.DebtCursor;
+import com.celcoin.credit.debts.valueobject.DebtFilter;
+import com.celcoin.credit.debts.valueobject.DebtSort;
+import com.celcoin.credit.debts.valueobject.NameMatch;
+import com.celcoin.credit.error.ErrorResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Read endpoints of {@link DebtController} on the reactive stack. Lists take the same filters, sorts, cursors and limit,
+ * and answer with the same JSON, X-Next-Cursor header and errors. Sparse fieldsets (fields and include) are answered
+ * with 400, and neither endpoint writes ETags or formats other than JSON.
+ */
+public class ReactiveDebtHandler {
+
+    private final ReactiveDebtService reactiveDebtService;
+
+    public ReactiveDebtHandler(ReactiveDebtService reactiveDebtService){
+        this.reactiveDebtService = reactiveDebtService;
+    }
+
+    public RouterFunction<ServerResponse> routes(){
+
+        return RouterFunctions.route()
+                              .GET("/api/debts", this::getDebts)
+                              .GET("/api/debts/{id}", this::getDebt)
+                              .onError(DebtNotFoundException.class, (e, request) -> error(HttpStatus.NOT_FOUND, e.getMessage()))
+                              .build();
+    }
+
+    public Mono<ServerResponse> getDebts(ServerRequest request){
+
+        for(String unsupported : List.of("fields", "include")){
+            if(request.queryParam(unsupported).isPresent()){
+                return error(HttpStatus.BAD_REQUEST, unsupported + ": not supported by the reactive API");
+            }
+        }
+
+        DebtFilter filter = new DebtFilter();
+        int pageSize;
+        DebtSort sort;
+        DebtCursor after;
+
+        try{
+            filter.setCreditorName(request.queryParam("creditorName").orElse(null));
+            filter.setCreditorNameMatch(request.queryParam("creditorNameMatch").map(NameMatch::valueOf).orElse(NameMatch.EXACT));
+            filter.setDueDate(request.queryParam("dueDate").map(LocalDate::parse).orElse(null));
+            filter.setDueDateFrom(request.queryParam("dueDateFrom").map(LocalDate::parse).orElse(null));
+            filter.setDueDateTo(request.queryParam("dueDateTo").map(LocalDate::parse).orElse(null));
+            filter.setBalanceDueMin(request.queryParam("balanceDueMin").map(BigDecimal::new).orElse(null));
+            filter.setBalanceDueMax(request.queryParam("balanceDueMax").map(BigDecimal::new).orElse(null));
+            filter.setCreatedAfter(request.queryParam("createdAfter").map(LocalDateTime::parse).orElse(null));
+            filter.setStatusId(request.queryParam("statusId").map(Integer::valueOf).orElse(null));
+            pageSize = request.queryParam("limit").map(Integer::valueOf).orElse(DebtController.DEFAULT_PAGE_SIZE);
+            sort = DebtSort.fromParameter(request.queryParam("sort").orElse(DebtSort.DUE_DATE.getParameter()));
+            after = request.queryParam("after").map(cursor -> DebtCursor.decode(cursor, sort)).orElse(null);
+        }catch(DateTimeParseException | IllegalArgumentException e){
+            return error(HttpStatus.BAD_REQUEST, "Invalid query parameter: " + e.getMessage());
+        }catch(InvalidCursorException e){
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+
+        if(pageSize < 1){
+            return error(HttpStatus.BAD_REQUEST, "limit: must be greater than or equal to 1");
+        }
+        if(pageSize > DebtController.MAX_PAGE_SIZE){
+            return error(HttpStatus.BAD_REQUEST, "limit: must be less than or equal to " + DebtController.MAX_PAGE_SIZE);
+        }
+
+        return reactiveDebtService.getDebts(filter, sort, after, pageSize)
+                                  .flatMap(page -> {
+                                      ServerResponse.BodyBuilder builder = ServerResponse.ok()
+                                                                                         .contentType(MediaType.APPLICATION_JSON);
+                                      if(page.getNextCursor() != null){
+                                          builder.header(DebtController.NEXT_CURSOR_HEADER, page.getNextCursor().encode());
+                                      }
+                                      return builder.bodyValue(page.getDebts());
+                                  });
+    }
+
+    public Mono<ServerResponse> getDebt(ServerRequest request){
+
+        Long id;
+        try{
+            id = Long.valueOf(request.pathVariable("id"));
+        }catch(NumberFormatException e){
+            return error(HttpStatus.BAD_REQUEST, "id: must be a number");
+        }
+
+        return reactiveDebtService.getDebt(id)
+                                  .flatMap(debt -> ServerResponse.ok()
+                                                                 .contentType(MediaType.APPLICATION_JSON)
+                                                                 .bodyValue(debt));
+    }
+
+    private static Mono<ServerResponse> error(HttpStatus status, String message){
+        return ServerResponse.status(status)
+                             .contentType(MediaType.APPLICATION_JSON)
+                             .bodyValue(new ErrorResponse(List.of(message)));
+    }
+}
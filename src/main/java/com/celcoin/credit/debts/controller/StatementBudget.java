@@ -0,0 +1,17 @@
+package com.celcoin.credit.debts.controller;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Most SQL statements one request to the endpoint may execute, whatever the data or page size. Requests that go over
+ * it are counted in the http.server.requests.statements.over.budget metric.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface StatementBudget {
+
+    int value();
+}
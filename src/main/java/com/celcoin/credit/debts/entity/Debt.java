@@ -1,5 +1,6 @@
 package com.celcoin.credit.debts.entity;
 
+import com.celcoin.credit.debts.valueobject.DebtStatus;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -16,7 +17,8 @@ import java.util.List;
 public class Debt {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "debts_id_seq")
+    @SequenceGenerator(name = "debts_id_seq", sequenceName = "debts_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "creditor_name")
@@ -37,9 +39,8 @@ public class Debt {
     @Column(name = "balance_due")
     private BigDecimal balanceDue;
 
-    @OneToOne
-    @JoinColumn(name = "status_id", referencedColumnName = "id")
-    private Status status;
+    @Column(name = "status_id")
+    private DebtStatus status;
 
     @Column(name = "created_at")
     private LocalDateTime createdAt;
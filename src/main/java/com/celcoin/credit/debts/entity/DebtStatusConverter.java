@@ -0,0 +1,19 @@
+package com.celcoin.credit.debts.entity;
+
+import com.celcoin.credit.debts.valueobject.DebtStatus;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter(autoApply = true)
+public class DebtStatusConverter implements AttributeConverter<DebtStatus, Integer> {
+
+    @Override
+    public Integer convertToDatabaseColumn(DebtStatus status){
+        return status == null ? null : status.getId();
+    }
+
+    @Override
+    public DebtStatus convertToEntityAttribute(Integer id){
+        return id == null ? null : DebtStatus.fromId(id);
+    }
+}
@@ -0,0 +1,28 @@
+package com.celcoin.credit.debts.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "idempotency_keys")
+public class IdempotencyKey {
+
+    @Id
+    @Column(name = "idempotency_key")
+    private String key;
+
+    @Column(name = "debt_id")
+    private Long debtId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "installment_id")
+    private Installment installment;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 public class Installment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "installments_id_seq")
+    @SequenceGenerator(name = "installments_id_seq", sequenceName = "installments_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "value")
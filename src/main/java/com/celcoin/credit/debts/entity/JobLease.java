@@ -0,0 +1,31 @@
+package com.celcoin.credit.debts.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "job_leases")
+public class JobLease {
+
+    @Id
+    @Column(name = "name")
+    private String name;
+
+    @Column(name = "owner")
+    private String owner;
+
+    @Column(name = "leased_until")
+    private LocalDateTime leasedUntil;
+
+    @Column(name = "checkpoint_due_date")
+    private LocalDate checkpointDueDate;
+
+    @Column(name = "checkpoint_id")
+    private Long checkpointId;
+}
@@ -0,0 +1,41 @@
+package com.celcoin.credit.debts.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One installment of the schedule written when a debt is registered. Its value is what the installment takes off the
+ * balance due, and it is paid once paidAt is set.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "installment_schedule")
+public class ScheduledInstallment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "installment_schedule_id_seq")
+    @SequenceGenerator(name = "installment_schedule_id_seq", sequenceName = "installment_schedule_id_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "debt_id")
+    private Debt debt;
+
+    @Column(name = "number")
+    private Integer number;
+
+    @Column(name = "value")
+    private BigDecimal value;
+
+    @Column(name = "due_date")
+    private LocalDate dueDate;
+
+    @Column(name = "paid_at")
+    private LocalDateTime paidAt;
+}
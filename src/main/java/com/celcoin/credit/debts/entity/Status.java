@@ -1,21 +0,0 @@
-package com.celcoin.credit.debts.entity;
-
-import jakarta.persistence.Column;
-import jakarta.persistence.Entity;
-import jakarta.persistence.Id;
-import jakarta.persistence.Table;
-import lombok.Getter;
-import lombok.Setter;
-
-@Getter
-@Setter
-@Entity
-@Table(name = "status")
-public class Status {
-
-    @Id
-    private Integer id;
-
-    @Column(name = "description")
-    private String description;
-}
@@ -0,0 +1,7 @@
+package com.celcoin.credit.debts.exception;
+
+public class BatchChunkFailedException extends RuntimeException {
+    public BatchChunkFailedException(Throwable cause){
+        super("The payment could not be saved, no payment of its chunk was applied", cause);
+    }
+}
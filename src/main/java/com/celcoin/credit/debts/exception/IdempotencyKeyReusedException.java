@@ -0,0 +1,7 @@
+package com.celcoin.credit.debts.exception;
+
+public class IdempotencyKeyReusedException extends RuntimeException {
+    public IdempotencyKeyReusedException(){
+        super("Idempotency key was already used to pay another debt");
+    }
+}
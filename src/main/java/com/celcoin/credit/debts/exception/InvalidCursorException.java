@@ -0,0 +1,7 @@
+package com.celcoin.credit.debts.exception;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(){
+        super("Invalid cursor");
+    }
+}
@@ -0,0 +1,7 @@
+package com.celcoin.credit.debts.exception;
+
+public class InvalidFieldsException extends RuntimeException {
+    public InvalidFieldsException(){
+        super("Invalid fields");
+    }
+}
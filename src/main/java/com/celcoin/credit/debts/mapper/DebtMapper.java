@@ -0,0 +1,124 @@
+package com.celcoin.credit.debts.mapper;
+
+import com.celcoin.credit.debts.entity.Debt;
+import com.celcoin.credit.debts.entity.Installment;
+import com.celcoin.credit.debts.valueobject.DebtField;
+import com.celcoin.credit.debts.valueobject.DebtInstallment;
+import com.celcoin.credit.debts.valueobject.DebtProjectionResponse;
+import com.celcoin.credit.debts.valueobject.DebtResponse;
+import com.celcoin.credit.debts.valueobject.DebtStatus;
+import com.celcoin.credit.debts.valueobject.InstallmentResponse;
+import com.celcoin.credit.debts.valueobject.PayInstallmentRequest;
+import com.celcoin.credit.debts.valueobject.RegisterDebtRequest;
+import jakarta.persistence.Tuple;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+public final class DebtMapper {
+
+    private DebtMapper(){}
+
+    public static Debt toDebt(RegisterDebtRequest request){
+
+        Debt debt = new Debt();
+        debt.setCreditorName(request.getCreditorName());
+        debt.setTotalValue(request.getTotalValue());
+        debt.setNumberOfInstallments(request.getNumberOfInstallments());
+        debt.setDueDate(request.getDueDate());
+
+        return debt;
+    }
+
+    public static Installment toInstallment(PayInstallmentRequest request){
+
+        Installment installment = new Installment();
+        installment.setValue(request.getValue());
+
+        return installment;
+    }
+
+    public static DebtResponse toDebtResponse(Debt debt){
+
+        DebtResponse response = new DebtResponse();
+        response.setId(debt.getId());
+        response.setCreditorName(debt.getCreditorName());
+        response.setTotalValue(debt.getTotalValue());
+        response.setBalanceDue(debt.getBalanceDue());
+        response.setNumberOfInstallments(debt.getNumberOfInstallments());
+        response.setDueDate(debt.getDueDate());
+        response.setInstallments(toInstallmentResponses(debt.getInstallments()));
+        response.setStatusId(debt.getStatus() == null ? null : debt.getStatus().getId());
+        response.setCreatedAt(debt.getCreatedAt());
+        response.setUpdatedAt(debt.getUpdatedAt());
+
+        return response;
+    }
+
+    /**
+     * Only the requested fields are set, the others are left null and omitted from the JSON.
+     */
+    public static DebtResponse toDebtResponse(Tuple tuple, Set<DebtField> fields){
+
+        DebtResponse response = new DebtProjectionResponse();
+        for(DebtField field : fields){
+            switch(field){
+                case ID -> response.setId(tuple.get(field.getName(), Long.class));
+                case CREDITOR_NAME -> response.setCreditorName(tuple.get(field.getName(), String.class));
+                case TOTAL_VALUE -> response.setTotalValue(tuple.get(field.getName(), BigDecimal.class));
+                case BALANCE_DUE -> response.setBalanceDue(tuple.get(field.getName(), BigDecimal.class));
+                case NUMBER_OF_INSTALLMENTS -> response.setNumberOfInstallments(tuple.get(field.getName(), Integer.class));
+                case DUE_DATE -> response.setDueDate(tuple.get(field.getName(), LocalDate.class));
+                case STATUS_ID -> {
+                    DebtStatus status = tuple.get(field.getName(), DebtStatus.class);
+                    response.setStatusId(status == null ? null : status.getId());
+                }
+                case CREATED_AT -> response.setCreatedAt(tuple.get(field.getName(), LocalDateTime.class));
+                case UPDATED_AT -> response.setUpdatedAt(tuple.get(field.getName(), LocalDateTime.class));
+                case INSTALLMENTS -> response.setInstallments(new ArrayList<>());
+            }
+        }
+
+        return response;
+    }
+
+    public static InstallmentResponse toInstallmentResponse(DebtInstallment installment){
+
+        InstallmentResponse response = new InstallmentResponse();
+        response.setId(installment.getId());
+        response.setValue(installment.getValue());
+        response.setInterestRate(installment.getInterestRate());
+        response.setCreatedAt(installment.getCreatedAt());
+
+        return response;
+    }
+
+    public static InstallmentResponse toInstallmentResponse(Installment installment){
+
+        InstallmentResponse response = new InstallmentResponse();
+        response.setId(installment.getId());
+        response.setValue(installment.getValue());
+        response.setInterestRate(installment.getInterestRate());
+        response.setCreatedAt(installment.getCreatedAt());
+
+        return response;
+    }
+
+    private static List<InstallmentResponse> toInstallmentResponses(List<Installment> installments){
+
+        if(installments == null){
+            return null;
+        }
+
+        List<InstallmentResponse> responses = new ArrayList<>(installments.size());
+        for(Installment installment : installments){
+            responses.add(toInstallmentResponse(installment));
+        }
+
+        return responses;
+    }
+}
@@ -0,0 +1,53 @@
+package com.celcoin.credit.debts.repository;
+
+import com.celcoin.credit.debts.valueobject.DebtFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads debts with their installments for the export, one row per installment (or per debt without installments) in
+ * dueDate, id order. Rows are fetched from a forward-only cursor in blocks of bu-credit.export.fetch-size, PostgreSQL
+ * only keeps the cursor open server side inside a transaction.
+ */
+@Repository
+public class DebtExportRepository {
+
+    private static final String SELECT = "select d.id, d.creditor_name, d.total_value, d.balance_due, " +
+                                         "d.number_of_installments, d.due_date, d.status_id, d.created_at, d.updated_at, " +
+                                         "i.id as installment_id, i.\"value\" as installment_value, " +
+                                         "i.interest_rate as installment_interest_rate, " +
+                                         "i.created_at as installment_created_at " +
+                                         "from debts d left join installments i on i.debt_id = d.id where true";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public DebtExportRepository(DataSource dataSource,
+                                @Value("${bu-credit.export.fetch-size:1000}") int fetchSize){
+
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setFetchSize(fetchSize);
+
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(template);
+    }
+
+    /**
+     * Hands every row matching the filters of GET /api/debts to the handler, without keeping any of them.
+     */
+    public void streamDebts(DebtFilter filter, RowCallbackHandler handler){
+
+        StringBuilder sql = new StringBuilder(SELECT);
+        Map<String, Object> parameters = new HashMap<>();
+
+        DebtFilterSql.appendConditions(sql, "d.", filter, parameters);
+        sql.append(" order by d.due_date, d.id, i.id");
+
+        jdbcTemplate.query(sql.toString(), parameters, handler);
+    }
+}
@@ -0,0 +1,41 @@
+package com.celcoin.credit.debts.repository;
+
+import com.celcoin.credit.debts.valueobject.DebtFilter;
+import com.celcoin.credit.debts.valueobject.NameMatch;
+
+import java.util.Map;
+
+/**
+ * The conditions of DebtSpecification#matches for the queries written in SQL, appended to a "where true" clause.
+ */
+final class DebtFilterSql {
+
+    private DebtFilterSql(){}
+
+    /**
+     * @param alias prefix of the debts columns, such as "d.", or an empty string
+     */
+    static void appendConditions(StringBuilder sql, String alias, DebtFilter filter, Map<String, Object> parameters){
+
+        if(filter.getCreditorName() != null){
+            NameMatch match = filter.getCreditorNameMatch();
+            sql.append(" and ").append(match.toSql(alias + "creditor_name", "creditorName"));
+            parameters.put("creditorName", match.toParameter(filter.getCreditorName()));
+        }
+        append(sql, parameters, alias + "due_date = :dueDate", "dueDate", filter.getDueDate());
+        append(sql, parameters, alias + "due_date >= :dueDateFrom", "dueDateFrom", filter.getDueDateFrom());
+        append(sql, parameters, alias + "due_date <= :dueDateTo", "dueDateTo", filter.getDueDateTo());
+        append(sql, parameters, alias + "balance_due >= :balanceDueMin", "balanceDueMin", filter.getBalanceDueMin());
+        append(sql, parameters, alias + "balance_due <= :balanceDueMax", "balanceDueMax", filter.getBalanceDueMax());
+        append(sql, parameters, alias + "created_at > :createdAfter", "createdAfter", filter.getCreatedAfter());
+        append(sql, parameters, alias + "status_id = :statusId", "statusId", filter.getStatusId());
+    }
+
+    private static void append(StringBuilder sql, Map<String, Object> parameters, String condition, String name, Object value){
+
+        if(value != null){
+            sql.append(" and ").append(condition);
+            parameters.put(name, value);
+        }
+    }
+}
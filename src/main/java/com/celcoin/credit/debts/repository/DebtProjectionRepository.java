@@ -0,0 +1,20 @@
+package com.celcoin.credit.debts.repository;
+
+import com.celcoin.credit.debts.entity.Debt;
+import com.celcoin.credit.debts.valueobject.DebtField;
+import com.celcoin.credit.debts.valueobject.DebtSort;
+import jakarta.persistence.Tuple;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Set;
+
+public interface DebtProjectionRepository {
+
+    /**
+     * Reads only the columns of the requested fields of the debts matching the specification, in the given order.
+     * Tuples are keyed by field name and always carry the id and the sort attribute, so a cursor can be built from
+     * the last one.
+     */
+    List<Tuple> findProjected(Specification<Debt> specification, Set<DebtField> fields, DebtSort sort, int limit);
+}
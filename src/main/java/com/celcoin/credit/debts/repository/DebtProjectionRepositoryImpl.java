@@ -0,0 +1,49 @@
+package com.celcoin.credit.debts.repository;
+
+import com.celcoin.credit.debts.entity.Debt;
+import com.celcoin.credit.debts.valueobject.DebtField;
+import com.celcoin.credit.debts.valueobject.DebtSort;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+class DebtProjectionRepositoryImpl implements DebtProjectionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Tuple> findProjected(Specification<Debt> specification, Set<DebtField> fields, DebtSort sort, int limit){
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Debt> root = query.from(Debt.class);
+
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(root.get(DebtField.ID.getAttribute()).alias(DebtField.ID.getName()));
+        selections.add(root.get(sort.getAttribute()).alias(sort.getAttribute()));
+        for(DebtField field : fields){
+            if(field.getAttribute() != null && field != DebtField.ID && !field.getName().equals(sort.getAttribute())){
+                selections.add(root.get(field.getAttribute()).alias(field.getName()));
+            }
+        }
+
+        query.multiselect(selections)
+             .where(specification.toPredicate(root, query, cb))
+             .orderBy(QueryUtils.toOrders(sort.toSort(), root, cb));
+
+        return entityManager.createQuery(query)
+                            .setMaxResults(limit)
+                            .getResultList();
+    }
+}
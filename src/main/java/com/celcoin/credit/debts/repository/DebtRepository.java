@@ -1,10 +1,134 @@
 package com.celcoin.credit.debts.repository;
 
 import com.celcoin.credit.debts.entity.Debt;
+import com.celcoin.credit.debts.valueobject.AgingBucketTotals;
+import com.celcoin.credit.debts.valueobject.CreditorSummary;
+import com.celcoin.credit.debts.valueobject.DebtBalance;
+import com.celcoin.credit.debts.valueobject.DebtKey;
+import com.celcoin.credit.debts.valueobject.DebtStatus;
+import com.celcoin.credit.debts.valueobject.StatusSummary;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
-public interface DebtRepository extends JpaRepository<Debt, Long>, JpaSpecificationExecutor<Debt> {
+public interface DebtRepository extends JpaRepository<Debt, Long>, JpaSpecificationExecutor<Debt>, DebtProjectionRepository {
+
+    @EntityGraph(attributePaths = "installments")
+    Optional<Debt> findWithInstallmentsById(Long id);
+
+    /**
+     * Initializes the installments of debts already loaded in the persistence context with a single query,
+     * so mapping a page of debts doesn't fire one installments query per debt.
+     */
+    @Query("select distinct d from Debt d left join fetch d.installments where d.id in :ids")
+    List<Debt> fetchInstallments(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Loads a debt that is never dirty checked, so changes made to it in memory are not written back on flush.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    Optional<Debt> findReadOnlyById(Long id);
+
+    /**
+     * Loads debts locked against concurrent writes until the end of the transaction, in id order so that two callers
+     * locking overlapping sets can't deadlock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select d from Debt d where d.id in :ids order by d.id")
+    List<Debt> lockAllById(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Subtracts an installment from the balance due and moves the debt to PAID, or to remainingStatusId when there is
+     * still a balance, in one statement. The condition is evaluated against the latest committed row, so concurrent
+     * payments can't lose a decrement.
+     *
+     * @return the new balance and status, or empty when the debt is already paid or its balance is lower than value
+     */
+    @Query(value = "update debts " +
+                   "set balance_due = balance_due - :value, " +
+                   "status_id = case when balance_due = :value then :paidId else :remainingStatusId end, " +
+                   "updated_at = :updatedAt " +
+                   "where id = :id and balance_due >= :value and status_id <> :paidId " +
+                   "returning balance_due as balanceDue, status_id as statusId",
+           nativeQuery = true)
+    Optional<DebtBalance> decrementBalanceDue(@Param("id") Long id,
+                                              @Param("value") BigDecimal value,
+                                              @Param("updatedAt") LocalDateTime updatedAt,
+                                              @Param("paidId") Integer paidId,
+                                              @Param("remainingStatusId") Integer remainingStatusId);
+
+    /**
+     * Version of the debt for conditional reads, changed by every write to it.
+     */
+    @Query("select d.updatedAt from Debt d where d.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+
+    @Query("select new com.celcoin.credit.debts.valueobject.StatusSummary(d.status, count(d), sum(d.totalValue), sum(d.balanceDue)) " +
+           "from Debt d group by d.status order by d.status")
+    List<StatusSummary> summarizeByStatus();
+
+    @Query("select new com.celcoin.credit.debts.valueobject.CreditorSummary(d.creditorName, count(d), sum(d.totalValue), sum(d.balanceDue)) " +
+           "from Debt d group by d.creditorName order by d.creditorName")
+    List<CreditorSummary> summarizeByCreditor();
+
+    /**
+     * Totals of the unpaid debts due before today, grouped by how many days they are overdue: up to 30 (bucket 0),
+     * 31 to 60 (1), 61 to 90 (2) and more than 90 (3). Only reads the due_date range of the overdue debts.
+     */
+    @Query(value = "select bucket, count(*) as count, sum(total_value) as totalValue, sum(balance_due) as balanceDue " +
+                   "from (select case when due_date >= :overdue30 then 0 " +
+                   "                  when due_date >= :overdue60 then 1 " +
+                   "                  when due_date >= :overdue90 then 2 " +
+                   "                  else 3 end as bucket, total_value, balance_due " +
+                   "      from debts " +
+                   "      where due_date < :today and status_id <> :paidId) overdue " +
+                   "group by bucket order by bucket",
+           nativeQuery = true)
+    List<AgingBucketTotals> summarizeOverdue(@Param("today") LocalDate today,
+                                             @Param("overdue30") LocalDate overdue30,
+                                             @Param("overdue60") LocalDate overdue60,
+                                             @Param("overdue90") LocalDate overdue90,
+                                             @Param("paidId") Integer paidId);
+
+    /**
+     * Locks the next unpaid debts due before today after the (afterDueDate, afterId) checkpoint, as a range scan of
+     * the (due_date, id) index. Debts locked by a payment are skipped rather than waited for.
+     */
+    @Query(value = "select id, due_date as dueDate from debts " +
+                   "where due_date < :today " +
+                   "and due_date >= :afterDueDate and (due_date > :afterDueDate or id > :afterId) " +
+                   "and status_id in (:createdId, :partiallyPaidId) " +
+                   "order by due_date, id " +
+                   "limit :limit " +
+                   "for update skip locked",
+           nativeQuery = true)
+    List<DebtKey> lockOverdueCandidates(@Param("today") LocalDate today,
+                                        @Param("afterDueDate") LocalDate afterDueDate,
+                                        @Param("afterId") Long afterId,
+                                        @Param("createdId") Integer createdId,
+                                        @Param("partiallyPaidId") Integer partiallyPaidId,
+                                        @Param("limit") int limit);
+
+    @Modifying
+    @Query("update Debt d set d.status = :status, d.updatedAt = :updatedAt where d.id in :ids")
+    int updateStatus(@Param("ids") Collection<Long> ids,
+                     @Param("status") DebtStatus status,
+                     @Param("updatedAt") LocalDateTime updatedAt);
 }
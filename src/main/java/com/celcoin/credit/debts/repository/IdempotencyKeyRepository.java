@@ -0,0 +1,15 @@
+package com.celcoin.credit.debts.repository;
+
+import com.celcoin.credit.debts.entity.IdempotencyKey;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    @EntityGraph(attributePaths = "installment")
+    Optional<IdempotencyKey> findWithInstallmentByKey(String key);
+}
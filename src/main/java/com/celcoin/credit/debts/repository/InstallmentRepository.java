@@ -1,9 +1,19 @@
 package com.celcoin.credit.debts.repository;
 
 import com.celcoin.credit.debts.entity.Installment;
+import com.celcoin.credit.debts.valueobject.DebtInstallment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface InstallmentRepository extends JpaRepository<Installment, Long> {
+
+    @Query("select new com.celcoin.credit.debts.valueobject.DebtInstallment(i.debt.id, i.id, i.value, i.interestRate, i.createdAt) " +
+           "from Installment i where i.debt.id in :debtIds order by i.id")
+    List<DebtInstallment> findByDebtIds(@Param("debtIds") Collection<Long> debtIds);
 }
@@ -0,0 +1,42 @@
+package com.celcoin.credit.debts.repository;
+
+import com.celcoin.credit.debts.entity.ScheduledInstallment;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface InstallmentScheduleRepository extends JpaRepository<ScheduledInstallment, Long> {
+
+    /**
+     * The installment to pay next, read through the (debt_id, number) index.
+     */
+    Optional<ScheduledInstallment> findFirstByDebtIdAndPaidAtIsNullOrderByNumber(Long debtId);
+
+    @Query("select s from ScheduledInstallment s where s.debt.id in :debtIds and s.paidAt is null order by s.debt.id, s.number")
+    List<ScheduledInstallment> findUnpaidByDebtIds(@Param("debtIds") Collection<Long> debtIds);
+
+    /**
+     * Same rows as {@link #findUnpaidByDebtIds}, locked until the end of the transaction in (debt_id, number) order.
+     * Rows paid by a concurrent transaction while waiting for their lock are left out.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from ScheduledInstallment s where s.debt.id in :debtIds and s.paidAt is null order by s.debt.id, s.number")
+    List<ScheduledInstallment> lockUnpaidByDebtIds(@Param("debtIds") Collection<Long> debtIds);
+
+    /**
+     * @return 1 when the installment was still unpaid, 0 when a concurrent payment got it first
+     */
+    @Modifying
+    @Query("update ScheduledInstallment s set s.paidAt = :paidAt where s.id = :id and s.paidAt is null")
+    int markPaid(@Param("id") Long id, @Param("paidAt") LocalDateTime paidAt);
+}
@@ -0,0 +1,58 @@
+package com.celcoin.credit.debts.repository;
+
+import com.celcoin.credit.debts.entity.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Leases are taken and kept with conditional updates of the job row, so only one node at a time gets an updated row
+ * back and a node whose lease was taken over can't write a checkpoint anymore.
+ */
+@Repository
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+    /**
+     * @return 1 when the lease was free, expired or already held by owner, 0 otherwise
+     */
+    @Modifying
+    @Query("update JobLease l set l.owner = :owner, l.leasedUntil = :leasedUntil " +
+           "where l.name = :name and (l.leasedUntil < :now or l.owner = :owner)")
+    int acquire(@Param("name") String name,
+                @Param("owner") String owner,
+                @Param("now") LocalDateTime now,
+                @Param("leasedUntil") LocalDateTime leasedUntil);
+
+    /**
+     * Stores the checkpoint and extends the lease.
+     *
+     * @return 1 while owner holds the lease, 0 once another node has taken it
+     */
+    @Modifying
+    @Query("update JobLease l set l.leasedUntil = :leasedUntil, l.checkpointDueDate = :dueDate, l.checkpointId = :id " +
+           "where l.name = :name and l.owner = :owner")
+    int checkpoint(@Param("name") String name,
+                   @Param("owner") String owner,
+                   @Param("leasedUntil") LocalDateTime leasedUntil,
+                   @Param("dueDate") LocalDate dueDate,
+                   @Param("id") Long id);
+
+    @Modifying
+    @Query("update JobLease l set l.leasedUntil = :now where l.name = :name and l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("now") LocalDateTime now);
+
+    /**
+     * Releases the lease and clears the checkpoint, so the next holder starts from the first debt.
+     */
+    @Modifying
+    @Query("update JobLease l set l.leasedUntil = :now, l.checkpointDueDate = null, l.checkpointId = null " +
+           "where l.name = :name and l.owner = :owner")
+    int releaseAndClearCheckpoint(@Param("name") String name,
+                                  @Param("owner") String owner,
+                                  @Param("now") LocalDateTime now);
+}
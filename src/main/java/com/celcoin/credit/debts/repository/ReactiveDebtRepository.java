@@ -0,0 +1,114 @@
+package com.celcoin.credit.debts.repository;
+
+import com.celcoin.credit.debts.valueobject.DebtCursor;
+import com.celcoin.credit.debts.valueobject.DebtFilter;
+import com.celcoin.credit.debts.valueobject.DebtResponse;
+import com.celcoin.credit.debts.valueobject.DebtSort;
+import com.celcoin.credit.debts.valueobject.InstallmentResponse;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Non-blocking reads of debts over R2DBC, mapped straight to the responses of the debts API. Queries mirror the
+ * ones DebtRepository issues through JPA: a keyset page of debts followed by one query for their installments.
+ */
+public class ReactiveDebtRepository {
+
+    private static final String DEBT_COLUMNS = "id, creditor_name, total_value, balance_due, number_of_installments, " +
+                                               "due_date, status_id, created_at, updated_at";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveDebtRepository(DatabaseClient databaseClient){
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<DebtResponse> findById(Long id){
+
+        return databaseClient.sql("select " + DEBT_COLUMNS + " from debts where id = :id")
+                             .bind("id", id)
+                             .map(ReactiveDebtRepository::toDebtResponse)
+                             .one();
+    }
+
+    public Flux<DebtResponse> findAll(DebtFilter filter, DebtSort sort, DebtCursor after, int limit){
+
+        StringBuilder sql = new StringBuilder("select ").append(DEBT_COLUMNS).append(" from debts where true");
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        String column = sortColumn(sort);
+        String direction = sort.isDescending() ? " desc" : "";
+
+        DebtFilterSql.appendConditions(sql, "", filter, parameters);
+        if(after != null){
+            sql.append(" and (").append(column).append(", id) ").append(sort.isDescending() ? "<" : ">")
+               .append(" (:afterKey, :afterId)");
+            parameters.put("afterKey", after.getKey());
+            parameters.put("afterId", after.getId());
+        }
+        sql.append(" order by ").append(column).append(direction).append(", id").append(direction).append(" limit :limit");
+        parameters.put("limit", limit);
+
+        return databaseClient.sql(sql.toString())
+                             .bindValues(parameters)
+                             .map(ReactiveDebtRepository::toDebtResponse)
+                             .all();
+    }
+
+    private static String sortColumn(DebtSort sort){
+
+        return switch(sort){
+            case DUE_DATE, DUE_DATE_DESC -> "due_date";
+            case CREATED_AT, CREATED_AT_DESC -> "created_at";
+            case BALANCE_DUE, BALANCE_DUE_DESC -> "balance_due";
+        };
+    }
+
+    /**
+     * @return the installments of the given debts, keyed by debt id and in payment order
+     */
+    public Mono<Map<Long, Collection<InstallmentResponse>>> findInstallments(Collection<Long> debtIds){
+
+        return databaseClient.sql("select id, debt_id, value, interest_rate, created_at from installments " +
+                                  "where debt_id = any(:debtIds) order by id")
+                             .bind("debtIds", debtIds.toArray(new Long[0]))
+                             .map(row -> Map.entry(row.get("debt_id", Long.class), toInstallmentResponse(row)))
+                             .all()
+                             .collectMultimap(Map.Entry::getKey, Map.Entry::getValue);
+    }
+
+    private static DebtResponse toDebtResponse(Readable row){
+
+        DebtResponse response = new DebtResponse();
+        response.setId(row.get("id", Long.class));
+        response.setCreditorName(row.get("creditor_name", String.class));
+        response.setTotalValue(row.get("total_value", BigDecimal.class));
+        response.setBalanceDue(row.get("balance_due", BigDecimal.class));
+        response.setNumberOfInstallments(row.get("number_of_installments", Integer.class));
+        response.setDueDate(row.get("due_date", LocalDate.class));
+        response.setStatusId(row.get("status_id", Integer.class));
+        response.setCreatedAt(row.get("created_at", LocalDateTime.class));
+        response.setUpdatedAt(row.get("updated_at", LocalDateTime.class));
+
+        return response;
+    }
+
+    private static InstallmentResponse toInstallmentResponse(Readable row){
+
+        InstallmentResponse response = new InstallmentResponse();
+        response.setId(row.get("id", Long.class));
+        response.setValue(row.get("value", BigDecimal.class));
+        response.setInterestRate(row.get("interest_rate", BigDecimal.class));
+        response.setCreatedAt(row.get("created_at", LocalDateTime.class));
+
+        return response;
+    }
+}
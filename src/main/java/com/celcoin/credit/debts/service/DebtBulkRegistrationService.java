@@ -0,0 +1,133 @@
+package com.celcoin.credit.debts.service;
+
+import com.celcoin.credit.debts.entity.Debt;
+import com.celcoin.credit.debts.entity.ScheduledInstallment;
+import com.celcoin.credit.debts.mapper.DebtMapper;
+import com.celcoin.credit.debts.repository.DebtRepository;
+import com.celcoin.credit.debts.repository.InstallmentScheduleRepository;
+import com.celcoin.credit.debts.valueobject.BulkRegistrationResult;
+import com.celcoin.credit.debts.valueobject.RegisterDebtRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Registers a stream of debts with the defaults of {@link DebtService#registerDebt}, reading, validating and
+ * inserting one chunk at a time so memory use doesn't depend on the size of the input.
+ */
+@Service
+public class DebtBulkRegistrationService {
+
+    private final DebtService debtService;
+    private final DebtRepository debtRepository;
+    private final InstallmentScheduleRepository installmentScheduleRepository;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    public DebtBulkRegistrationService(DebtService debtService,
+                                       DebtRepository debtRepository,
+                                       InstallmentScheduleRepository installmentScheduleRepository,
+                                       EntityManager entityManager,
+                                       Validator validator,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${bu-credit.bulk.chunk-size:1000}") int chunkSize,
+                                       @Value("${bu-credit.bulk.max-reported-errors:100}") int maxReportedErrors){
+        this.debtService = debtService;
+        this.debtRepository = debtRepository;
+        this.installmentScheduleRepository = installmentScheduleRepository;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public BulkRegistrationResult registerDebts(MappingIterator<RegisterDebtRequest> requests){
+
+        BulkRegistrationResult result = new BulkRegistrationResult(maxReportedErrors);
+        List<Debt> chunk = new ArrayList<>(chunkSize);
+        List<ScheduledInstallment> schedules = new ArrayList<>();
+        long chunkStart = 0;
+        long index = 0;
+
+        while(true){
+            RegisterDebtRequest request;
+            try{
+                if(!requests.hasNextValue()){
+                    break;
+                }
+                request = requests.nextValue();
+            }catch(JsonMappingException e){
+                // The value is well-formed JSON but not a RegisterDebtRequest, the iterator resumes at the next one
+                result.rejected(1, List.of("debts[" + index++ + "]: " + e.getOriginalMessage()));
+                continue;
+            }catch(IOException e){
+                String message = e instanceof JsonProcessingException ? ((JsonProcessingException) e).getOriginalMessage() : e.getMessage();
+                result.aborted("debts[" + index + "]: malformed JSON, reading stopped: " + message);
+                break;
+            }
+
+            Set<ConstraintViolation<RegisterDebtRequest>> violations = validator.validate(request);
+            if(!violations.isEmpty()){
+                String item = "debts[" + index++ + "].";
+                result.rejected(1, violations.stream()
+                                             .map(violation -> item + violation.getPropertyPath() + ": " + violation.getMessage())
+                                             .toList());
+                continue;
+            }
+
+            Debt debt = DebtMapper.toDebt(request);
+            schedules.addAll(debtService.applyRegistration(debt));
+            chunk.add(debt);
+            index++;
+
+            if(chunk.size() == chunkSize){
+                saveChunk(chunk, schedules, chunkStart, index, result);
+                chunk.clear();
+                schedules.clear();
+                chunkStart = index;
+            }
+        }
+
+        if(!chunk.isEmpty()){
+            saveChunk(chunk, schedules, chunkStart, index, result);
+        }
+
+        return result;
+    }
+
+    private void saveChunk(List<Debt> chunk, List<ScheduledInstallment> schedules, long from, long to, BulkRegistrationResult result){
+
+        try{
+            transactionTemplate.executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(chunkSize);
+                debtRepository.saveAll(chunk);
+                installmentScheduleRepository.saveAll(schedules);
+                entityManager.flush();
+                entityManager.clear();
+            });
+            result.registered(chunk.size());
+        }catch(DataAccessException | PersistenceException | TransactionException e){
+            result.rejected(chunk.size(), List.of("debts[" + from + ".." + (to - 1) + "]: could not be saved, none of them was registered"));
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.celcoin.credit.debts.service;
+
+import com.celcoin.credit.debts.repository.DebtExportRepository;
+import com.celcoin.credit.debts.valueobject.DebtFilter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes the debts and their installments to a stream as they are read from the database cursor, so memory use
+ * doesn't grow with the number of debts exported. Rows are read in a read-only transaction that lasts as long as
+ * the export.
+ */
+@Service
+public class DebtExportService {
+
+    public static final String CSV_HEADER = "id,creditorName,totalValue,balanceDue,numberOfInstallments,dueDate," +
+                                            "statusId,createdAt,updatedAt,installmentId,installmentValue," +
+                                            "installmentInterestRate,installmentCreatedAt";
+
+    private final DebtExportRepository debtExportRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    public DebtExportService(DebtExportRepository debtExportRepository,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager){
+        this.debtExportRepository = debtExportRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * One JSON object per line, with the same fields as GET /api/debts/{id}.
+     */
+    public void exportNdjson(DebtFilter filter, OutputStream out) throws IOException {
+
+        try(JsonGenerator generator = objectMapper.createGenerator(out)){
+            generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+
+            NdjsonWriter writer = new NdjsonWriter(generator);
+            export(filter, writer);
+            writer.finish();
+        }
+    }
+
+    /**
+     * One line per installment, debts without installments on one line with empty installment columns.
+     */
+    public void exportCsv(DebtFilter filter, OutputStream out) throws IOException {
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+
+        export(filter, new CsvWriter(writer));
+        writer.flush();
+    }
+
+    private void export(DebtFilter filter, RowCallbackHandler handler) throws IOException {
+
+        try{
+            transactionTemplate.executeWithoutResult(status -> debtExportRepository.streamDebts(filter, handler));
+        }catch(UncheckedIOException e){
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Rows of one debt come one after another, its object is opened on the first and closed when the next debt begins.
+     */
+    private static class NdjsonWriter implements RowCallbackHandler {
+
+        private final JsonGenerator generator;
+        private long debtId = -1;
+
+        private NdjsonWriter(JsonGenerator generator){
+            this.generator = generator;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+
+            try{
+                long id = rs.getLong("id");
+                if(id != debtId){
+                    if(debtId != -1){
+                        endDebt();
+                    }
+                    startDebt(rs, id);
+                }
+
+                long installmentId = rs.getLong("installment_id");
+                if(!rs.wasNull()){
+                    generator.writeStartObject();
+                    generator.writeNumberField("id", installmentId);
+                    generator.writeNumberField("value", rs.getBigDecimal("installment_value"));
+                    generator.writeNumberField("interestRate", rs.getBigDecimal("installment_interest_rate"));
+                    generator.writeObjectField("createdAt", rs.getObject("installment_created_at", LocalDateTime.class));
+                    generator.writeEndObject();
+                }
+            }catch(IOException e){
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void startDebt(ResultSet rs, long id) throws SQLException, IOException {
+
+            debtId = id;
+            generator.writeStartObject();
+            generator.writeNumberField("id", id);
+            generator.writeStringField("creditorName", rs.getString("creditor_name"));
+            generator.writeNumberField("totalValue", rs.getBigDecimal("total_value"));
+            generator.writeNumberField("balanceDue", rs.getBigDecimal("balance_due"));
+            generator.writeNumberField("numberOfInstallments", rs.getInt("number_of_installments"));
+            generator.writeObjectField("dueDate", rs.getObject("due_date", LocalDate.class));
+            generator.writeNumberField("statusId", rs.getInt("status_id"));
+            generator.writeObjectField("createdAt", rs.getObject("created_at", LocalDateTime.class));
+            generator.writeObjectField("updatedAt", rs.getObject("updated_at", LocalDateTime.class));
+            generator.writeArrayFieldStart("installments");
+        }
+
+        private void endDebt() throws IOException {
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+
+        private void finish() throws IOException {
+
+            if(debtId != -1){
+                endDebt();
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    private static class CsvWriter implements RowCallbackHandler {
+
+        private final Writer writer;
+
+        private CsvWriter(Writer writer){
+            this.writer = writer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+
+            try{
+                writer.write(Long.toString(rs.getLong("id")));
+                writer.write(',');
+                writeText(rs.getString("creditor_name"));
+                writer.write(',');
+                writeDecimal(rs.getBigDecimal("total_value"));
+                writer.write(',');
+                writeDecimal(rs.getBigDecimal("balance_due"));
+                writer.write(',');
+                writer.write(Integer.toString(rs.getInt("number_of_installments")));
+                writer.write(',');
+                writer.write(rs.getObject("due_date", LocalDate.class).toString());
+                writer.write(',');
+                writer.write(Integer.toString(rs.getInt("status_id")));
+                writer.write(',');
+                writeTimestamp(rs.getObject("created_at", LocalDateTime.class));
+                writer.write(',');
+                writeTimestamp(rs.getObject("updated_at", LocalDateTime.class));
+                writer.write(',');
+
+                long installmentId = rs.getLong("installment_id");
+                if(rs.wasNull()){
+                    writer.write(",,,");
+                }else{
+                    writer.write(Long.toString(installmentId));
+                    writer.write(',');
+                    writeDecimal(rs.getBigDecimal("installment_value"));
+                    writer.write(',');
+                    writeDecimal(rs.getBigDecimal("installment_interest_rate"));
+                    writer.write(',');
+                    writeTimestamp(rs.getObject("installment_created_at", LocalDateTime.class));
+                }
+                writer.write('\n');
+            }catch(IOException e){
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void writeDecimal(BigDecimal value) throws IOException {
+            writer.write(value.toPlainString());
+        }
+
+        private void writeTimestamp(LocalDateTime value) throws IOException {
+            writer.write(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+        }
+
+        // Quoted only when needed, with quotes doubled (RFC 4180)
+        private void writeText(String value) throws IOException {
+
+            if(value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0){
+                writer.write(value);
+                return;
+            }
+
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+}
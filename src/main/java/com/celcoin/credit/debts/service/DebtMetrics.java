@@ -0,0 +1,81 @@
+package com.celcoin.credit.debts.service;
+
+import com.celcoin.credit.debts.exception.DebtAlreadyPaidException;
+import com.celcoin.credit.debts.exception.DebtNotFoundException;
+import com.celcoin.credit.debts.exception.DebtOverdueException;
+import com.celcoin.credit.debts.exception.IncorrectValueException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers of the {@link DebtService} operations and counters of the business exceptions. Every meter is registered
+ * up front, so recording a sample is a lookup-free update of a histogram with no allocation.
+ */
+@Component
+public class DebtMetrics {
+
+    public static final String SERVICE_TIMER = "debt.service";
+    public static final String EXCEPTION_COUNTER = "debt.exceptions";
+
+    final Timer getDebtsTimer;
+    final Timer getDebtTimer;
+    final Timer getSummaryTimer;
+    final Timer registerDebtTimer;
+    final Timer payInstallmentTimer;
+
+    private final Counter debtNotFound;
+    private final Counter debtOverdue;
+    private final Counter incorrectValue;
+    private final Counter debtAlreadyPaid;
+
+    public DebtMetrics(MeterRegistry meterRegistry){
+        this.getDebtsTimer = timer(meterRegistry, "getDebts");
+        this.getDebtTimer = timer(meterRegistry, "getDebt");
+        this.getSummaryTimer = timer(meterRegistry, "getSummary");
+        this.registerDebtTimer = timer(meterRegistry, "registerDebt");
+        this.payInstallmentTimer = timer(meterRegistry, "payInstallment");
+        this.debtNotFound = counter(meterRegistry, DebtNotFoundException.class);
+        this.debtOverdue = counter(meterRegistry, DebtOverdueException.class);
+        this.incorrectValue = counter(meterRegistry, IncorrectValueException.class);
+        this.debtAlreadyPaid = counter(meterRegistry, DebtAlreadyPaidException.class);
+    }
+
+    static void record(Timer timer, long startNanos){
+        timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Counts a business exception, any other exception is left to the request metrics.
+     */
+    public void countException(RuntimeException e){
+
+        if(e instanceof DebtNotFoundException){
+            debtNotFound.increment();
+        }else if(e instanceof DebtOverdueException){
+            debtOverdue.increment();
+        }else if(e instanceof IncorrectValueException){
+            incorrectValue.increment();
+        }else if(e instanceof DebtAlreadyPaidException){
+            debtAlreadyPaid.increment();
+        }
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String method){
+        return Timer.builder(SERVICE_TIMER)
+                    .tag("method", method)
+                    .description("Time spent in DebtService, inside its transaction")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, Class<? extends RuntimeException> exception){
+        return Counter.builder(EXCEPTION_COUNTER)
+                      .tag("exception", exception.getSimpleName())
+                      .description("Business exceptions thrown by payments and lookups of debts")
+                      .register(meterRegistry);
+    }
+}
@@ -0,0 +1,93 @@
+package com.celcoin.credit.debts.service;
+
+import com.celcoin.credit.debts.mapper.DebtMapper;
+import com.celcoin.credit.debts.valueobject.DebtChangedEvent;
+import com.celcoin.credit.debts.valueobject.DebtResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Read-through cache of mapped debts in front of {@link DebtService#getDebt}. Entries are bounded in size (W-TinyLFU
+ * eviction) and age, and are dropped once a change to their debt is committed.
+ */
+@Service
+public class DebtResponseCache {
+
+    public static final String CACHE_NAME = "debts";
+
+    private final DebtService debtService;
+    private final Cache<Long, DebtResponse> debts;
+
+    public DebtResponseCache(DebtService debtService,
+                             MeterRegistry meterRegistry,
+                             @Value("${bu-credit.debt-cache.enabled:true}") boolean enabled,
+                             @Value("${bu-credit.debt-cache.maximum-size:10000}") long maximumSize,
+                             @Value("${bu-credit.debt-cache.expire-after-write:5m}") Duration expireAfterWrite){
+        this.debtService = debtService;
+
+        if(!enabled){
+            this.debts = null;
+            return;
+        }
+
+        this.debts = Caffeine.newBuilder()
+                             .maximumSize(maximumSize)
+                             .expireAfterWrite(expireAfterWrite)
+                             .recordStats()
+                             .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, debts, CACHE_NAME);
+        Gauge.builder("cache.hit.ratio", debts, cache -> cache.stats().hitRate())
+             .tag("cache", CACHE_NAME)
+             .description("The ratio of cache requests which were hits")
+             .register(meterRegistry);
+    }
+
+    public DebtResponse getDebt(Long id){
+
+        if(debts == null){
+            return load(id);
+        }
+
+        return debts.get(id, this::load);
+    }
+
+    /**
+     * The updatedAt of the debt, from its cached response when there is one since entries are dropped once a change
+     * commits, otherwise read from the database without loading the debt.
+     */
+    public LocalDateTime getVersion(Long id){
+
+        DebtResponse cached = debts == null ? null : debts.getIfPresent(id);
+        if(cached != null){
+            return cached.getUpdatedAt();
+        }
+
+        return debtService.getDebtVersion(id);
+    }
+
+    /**
+     * Runs after the transaction that changed the debt commits, never before, so a concurrent read can't cache the
+     * previous state again. A load of the same debt still in progress is waited for and then discarded.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDebtChanged(DebtChangedEvent event){
+
+        if(debts != null){
+            debts.invalidate(event.getDebtId());
+        }
+    }
+
+    private DebtResponse load(Long id){
+        return DebtMapper.toDebtResponse(debtService.getDebt(id));
+    }
+}
@@ -2,122 +2,384 @@ package com.celcoin.credit.debts.service;
 
 import com.celcoin.credit.debts.entity.Debt;
 import com.celcoin.credit.debts.entity.Installment;
-import com.celcoin.credit.debts.entity.Status;
+import com.celcoin.credit.debts.entity.ScheduledInstallment;
 import com.celcoin.credit.debts.exception.DebtAlreadyPaidException;
 import com.celcoin.credit.debts.exception.DebtNotFoundException;
-import com.celcoin.credit.debts.exception.DebtOverdueException;
-import com.celcoin.credit.debts.exception.IncorrectValueException;
+import com.celcoin.credit.debts.mapper.DebtMapper;
 import com.celcoin.credit.debts.repository.DebtRepository;
 import com.celcoin.credit.debts.repository.InstallmentRepository;
+import com.celcoin.credit.debts.repository.InstallmentScheduleRepository;
+import com.celcoin.credit.debts.valueobject.AgingBucketSummary;
+import com.celcoin.credit.debts.valueobject.AgingBucketTotals;
+import com.celcoin.credit.debts.valueobject.DebtBalance;
+import com.celcoin.credit.debts.valueobject.DebtChangedEvent;
+import com.celcoin.credit.debts.valueobject.DebtCursor;
+import com.celcoin.credit.debts.valueobject.DebtField;
+import com.celcoin.credit.debts.valueobject.DebtFilter;
+import com.celcoin.credit.debts.valueobject.DebtInstallment;
+import com.celcoin.credit.debts.valueobject.DebtPage;
+import com.celcoin.credit.debts.valueobject.DebtResponse;
+import com.celcoin.credit.debts.valueobject.DebtResponsePage;
+import com.celcoin.credit.debts.valueobject.DebtSort;
 import com.celcoin.credit.debts.valueobject.DebtStatus;
+import com.celcoin.credit.debts.valueobject.DebtSummaryResponse;
+import com.celcoin.credit.debts.valueobject.InstallmentPayment;
+import com.celcoin.credit.debts.valueobject.PaymentMode;
+import jakarta.persistence.Tuple;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static com.celcoin.credit.debts.specification.DebtSpecification.*;
 
 @Service
 public class DebtService {
 
-    private final BigDecimal interestRate;
+    private static final String[] AGING_BUCKETS = { "0-30", "31-60", "61-90", "90+" };
+
+    private final InstallmentCalculator calculator;
     private final DebtRepository debtRepository;
     private final InstallmentRepository installmentRepository;
+    private final InstallmentScheduleRepository installmentScheduleRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DebtMetrics metrics;
+    private final PaymentMode paymentMode;
 
     public DebtService(DebtRepository debtRepository,
                        InstallmentRepository installmentRepository,
-                       @Value("${bu-credit.interest-rate}") BigDecimal interestRate){
-        this.interestRate = interestRate;
+                       InstallmentScheduleRepository installmentScheduleRepository,
+                       ApplicationEventPublisher eventPublisher,
+                       DebtMetrics metrics,
+                       @Value("${bu-credit.interest-rate}") BigDecimal interestRate,
+                       @Value("${bu-credit.payment.mode:atomic}") PaymentMode paymentMode){
+        this.calculator = new InstallmentCalculator(interestRate);
         this.debtRepository = debtRepository;
         this.installmentRepository = installmentRepository;
+        this.installmentScheduleRepository = installmentScheduleRepository;
+        this.eventPublisher = eventPublisher;
+        this.metrics = metrics;
+        this.paymentMode = paymentMode;
     }
 
     @Transactional(readOnly = true)
-    public List<Debt> getDebts(String creditorName, LocalDate dueDate, Integer statusId){
+    public DebtPage getDebts(DebtFilter filter, DebtSort sort, DebtCursor after, int limit){
+
+        long start = System.nanoTime();
+        try{
+            return findDebts(filter, sort, after, limit);
+        }finally{
+            DebtMetrics.record(metrics.getDebtsTimer, start);
+        }
+    }
+
+    private DebtPage findDebts(DebtFilter filter, DebtSort sort, DebtCursor after, int limit){
+
+        Specification<Debt> filters = matches(filter).and(isAfter(after));
 
-        Specification<Debt> filters = Specification.where(hasCreditorName(creditorName))
-                                                    .and(hasDueDate(dueDate))
-                                                    .and(hasStatus(statusId));
+        // One extra row tells whether there is a next page without issuing a count query
+        List<Debt> debts = debtRepository.findBy(filters, query -> query.sortBy(sort.toSort())
+                                                                        .limit(limit + 1)
+                                                                        .all());
 
-        return debtRepository.findAll(filters);
+        List<Debt> page = debts.size() > limit ? debts.subList(0, limit) : debts;
+
+        if(!page.isEmpty()){
+            debtRepository.fetchInstallments(page.stream().map(Debt::getId).toList());
+        }
+
+        if(page.size() < debts.size()){
+            Debt last = page.get(limit - 1);
+            return new DebtPage(page, new DebtCursor(sort, sortKey(last, sort), last.getId()));
+        }
+
+        return new DebtPage(page, null);
+    }
+
+    /**
+     * Same page as {@link #getDebts}, reading only the columns of the requested fields. Installments are read by one
+     * query for the whole page, and only when requested.
+     */
+    @Transactional(readOnly = true)
+    public DebtResponsePage getDebtResponses(DebtFilter filter, DebtSort sort, DebtCursor after, int limit,
+                                             Set<DebtField> fields){
+
+        long start = System.nanoTime();
+        try{
+            Specification<Debt> filters = matches(filter).and(isAfter(after));
+
+            List<Tuple> rows = debtRepository.findProjected(filters, fields, sort, limit + 1);
+            List<Tuple> page = rows.size() > limit ? rows.subList(0, limit) : rows;
+
+            DebtCursor nextCursor = null;
+            if(page.size() < rows.size()){
+                Tuple last = page.get(limit - 1);
+                nextCursor = new DebtCursor(sort, (Comparable<?>) last.get(sort.getAttribute()),
+                                            last.get(DebtField.ID.getName(), Long.class));
+            }
+
+            return new DebtResponsePage(toDebtResponses(page, fields), nextCursor);
+        }finally{
+            DebtMetrics.record(metrics.getDebtsTimer, start);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public DebtResponse getDebtResponse(Long id, Set<DebtField> fields){
+
+        long start = System.nanoTime();
+        try{
+            List<Tuple> rows = debtRepository.findProjected(hasId(id), fields, DebtSort.DUE_DATE, 1);
+            if(rows.isEmpty()){
+                throw new DebtNotFoundException();
+            }
+
+            return toDebtResponses(rows, fields).get(0);
+        }catch(RuntimeException e){
+            metrics.countException(e);
+            throw e;
+        }finally{
+            DebtMetrics.record(metrics.getDebtTimer, start);
+        }
+    }
+
+    private static Comparable<?> sortKey(Debt debt, DebtSort sort){
+
+        return switch(sort){
+            case DUE_DATE, DUE_DATE_DESC -> debt.getDueDate();
+            case CREATED_AT, CREATED_AT_DESC -> debt.getCreatedAt();
+            case BALANCE_DUE, BALANCE_DUE_DESC -> debt.getBalanceDue();
+        };
+    }
+
+    private List<DebtResponse> toDebtResponses(List<Tuple> rows, Set<DebtField> fields){
+
+        Map<Long, DebtResponse> responses = new LinkedHashMap<>();
+        for(Tuple row : rows){
+            DebtResponse response = DebtMapper.toDebtResponse(row, fields);
+            responses.put(row.get(DebtField.ID.getName(), Long.class), response);
+        }
+
+        if(fields.contains(DebtField.INSTALLMENTS) && !responses.isEmpty()){
+            for(DebtInstallment installment : installmentRepository.findByDebtIds(responses.keySet())){
+                responses.get(installment.getDebtId()).getInstallments().add(DebtMapper.toInstallmentResponse(installment));
+            }
+        }
+
+        return new ArrayList<>(responses.values());
     }
 
     @Transactional(readOnly = true)
     public Debt getDebt(Long id){
 
-        return debtRepository.findById(id).orElseThrow(DebtNotFoundException::new);
+        long start = System.nanoTime();
+        try{
+            return debtRepository.findWithInstallmentsById(id).orElseThrow(DebtNotFoundException::new);
+        }catch(RuntimeException e){
+            metrics.countException(e);
+            throw e;
+        }finally{
+            DebtMetrics.record(metrics.getDebtTimer, start);
+        }
+    }
+
+    /**
+     * The updatedAt of the debt, read without loading it.
+     */
+    @Transactional(readOnly = true)
+    public LocalDateTime getDebtVersion(Long id){
+        return debtRepository.findUpdatedAtById(id).orElseThrow(DebtNotFoundException::new);
+    }
+
+    /**
+     * Totals per status and creditor and the aging of the overdue debts, computed by grouped queries so no debt is
+     * loaded. Every aging bucket is present, empty ones with zeros.
+     */
+    @Transactional(readOnly = true)
+    public DebtSummaryResponse getSummary(LocalDate today){
+
+        long start = System.nanoTime();
+        try{
+            return summarize(today);
+        }finally{
+            DebtMetrics.record(metrics.getSummaryTimer, start);
+        }
+    }
+
+    private DebtSummaryResponse summarize(LocalDate today){
+
+        AgingBucketSummary[] aging = new AgingBucketSummary[AGING_BUCKETS.length];
+        for(AgingBucketTotals totals : debtRepository.summarizeOverdue(today, today.minusDays(30), today.minusDays(60),
+                                                                       today.minusDays(90), DebtStatus.PAID.getId())){
+            aging[totals.getBucket()] = new AgingBucketSummary(AGING_BUCKETS[totals.getBucket()], totals.getCount(),
+                                                               totals.getTotalValue(), totals.getBalanceDue());
+        }
+        for(int bucket = 0; bucket < aging.length; bucket++){
+            if(aging[bucket] == null){
+                aging[bucket] = new AgingBucketSummary(AGING_BUCKETS[bucket], 0L, BigDecimal.ZERO, BigDecimal.ZERO);
+            }
+        }
+
+        return new DebtSummaryResponse(today,
+                                       debtRepository.summarizeByStatus(),
+                                       debtRepository.summarizeByCreditor(),
+                                       List.of(aging));
     }
 
     @Transactional
     public Debt registerDebt(Debt debt){
 
-        Status status = new Status();
-        status.setId(DebtStatus.CREATED);
+        long start = System.nanoTime();
+        try{
+            List<ScheduledInstallment> schedule = applyRegistration(debt);
 
-        debt.setStatus(status);
+            Debt createdDebt = debtRepository.save(debt);
+            installmentScheduleRepository.saveAll(schedule);
+            eventPublisher.publishEvent(new DebtChangedEvent(createdDebt.getId()));
+
+            return createdDebt;
+        }finally{
+            DebtMetrics.record(metrics.registerDebtTimer, start);
+        }
+    }
+
+    /**
+     * Sets the initial state of a new debt and returns its installment schedule, without persisting either.
+     */
+    public List<ScheduledInstallment> applyRegistration(Debt debt){
+
+        debt.setStatus(LocalDate.now().isAfter(debt.getDueDate()) ? DebtStatus.OVERDUE : DebtStatus.CREATED);
         debt.setBalanceDue(debt.getTotalValue());
         debt.setCreatedAt(LocalDateTime.now());
         debt.setUpdatedAt(LocalDateTime.now());
 
-        return debtRepository.save(debt);
+        return calculator.schedule(debt);
     }
 
     @Transactional
     public Installment payInstallment(Long debtId, Installment installment){
 
+        long start = System.nanoTime();
+        try{
+            return paymentMode == PaymentMode.ATOMIC ? payInstallmentAtomically(debtId, installment)
+                                                     : payInstallmentWithEntity(debtId, installment);
+        }catch(RuntimeException e){
+            metrics.countException(e);
+            throw e;
+        }finally{
+            DebtMetrics.record(metrics.payInstallmentTimer, start);
+        }
+    }
+
+    private Installment payInstallmentWithEntity(Long debtId, Installment installment){
+
         Debt debt = debtRepository.findById(debtId).orElseThrow(DebtNotFoundException::new);
+        ScheduledInstallment next = installmentScheduleRepository.findFirstByDebtIdAndPaidAtIsNullOrderByNumber(debtId)
+                                                                 .orElse(null);
+
+        applyInstallment(debt, next, installment, LocalDate.now());
+
+        debtRepository.save(debt);
 
-        if(debt.getStatus() != null && debt.getStatus().getId().equals(DebtStatus.PAID)){
+        return installmentRepository.save(installment);
+    }
+
+    private Installment payInstallmentAtomically(Long debtId, Installment installment){
+
+        // Only the terms of the debt are taken from this read, balance and status are checked by the update itself
+        Debt debt = debtRepository.findReadOnlyById(debtId).orElseThrow(DebtNotFoundException::new);
+
+        if(debt.getStatus() == DebtStatus.PAID){
             throw new DebtAlreadyPaidException();
         }
 
         LocalDate today = LocalDate.now();
-        BigDecimal finalInterestRate = BigDecimal.ZERO;
+        LocalDateTime now = LocalDateTime.now();
+        InstallmentPayment payment = claimNextInstallment(debt, installment.getValue(), today, now);
 
-        if(today.isAfter(debt.getDueDate())){
-            finalInterestRate = this.interestRate;
-        }
+        DebtBalance balance = debtRepository.decrementBalanceDue(debtId,
+                                                                 Money.toBigDecimal(payment.getInstallmentValueCents()),
+                                                                 now,
+                                                                 DebtStatus.PAID.getId(),
+                                                                 remainingStatus(debt, today).getId())
+                                            .orElseThrow(DebtAlreadyPaidException::new);
+
+        debt.setBalanceDue(balance.getBalanceDue());
+        debt.setStatus(DebtStatus.fromId(balance.getStatusId()));
+        debt.setUpdatedAt(now);
+        eventPublisher.publishEvent(new DebtChangedEvent(debtId));
+
+        installment.setInterestRate(payment.getInterestRate());
+        installment.setDebt(debt);
+        installment.setCreatedAt(now);
+
+        return installmentRepository.save(installment);
+    }
 
-        BigDecimal numberOfInstallments = BigDecimal.valueOf(debt.getNumberOfInstallments());
-        BigDecimal installmentValue = debt.getTotalValue().divide(numberOfInstallments, 2, RoundingMode.HALF_EVEN);
+    /**
+     * Marks the next unpaid installment of the schedule as paid and returns the payment checked against it. When a
+     * concurrent payment marks the same installment first, the one after it is tried.
+     */
+    private InstallmentPayment claimNextInstallment(Debt debt, BigDecimal paidValue, LocalDate today, LocalDateTime now){
 
-        BigDecimal decimalInterestRate = finalInterestRate.divide(BigDecimal.valueOf(100), 4, RoundingMode.HALF_EVEN);
-        BigDecimal multiplier = decimalInterestRate.add(BigDecimal.ONE);
+        for(int attempt = 0; attempt < debt.getNumberOfInstallments(); attempt++){
+            ScheduledInstallment next = installmentScheduleRepository.findFirstByDebtIdAndPaidAtIsNullOrderByNumber(debt.getId())
+                                                                     .orElseThrow(DebtAlreadyPaidException::new);
 
-        BigDecimal finalInstallmentValue = installmentValue.multiply(multiplier);
+            InstallmentPayment payment = calculator.calculate(debt, next, paidValue, today);
 
-        if(installment.getValue().compareTo(finalInstallmentValue) != 0){
-            if(today.isAfter(debt.getDueDate())){
-                throw new DebtOverdueException(finalInstallmentValue, finalInterestRate);
+            if(installmentScheduleRepository.markPaid(next.getId(), now) == 1){
+                return payment;
             }
-            throw new IncorrectValueException(finalInstallmentValue);
         }
 
-        BigDecimal newBalanceDue = debt.getBalanceDue().subtract(installmentValue);
-        Status status = new Status();
+        throw new DebtAlreadyPaidException();
+    }
+
+    /**
+     * Validates the installment against the next scheduled installment of the debt and applies it to the three of them,
+     * without persisting any.
+     *
+     * @param next the first unpaid installment of the schedule, null when there is none left
+     */
+    public void applyInstallment(Debt debt, ScheduledInstallment next, Installment installment, LocalDate today){
 
-        if(newBalanceDue.compareTo(BigDecimal.ZERO) == 0){
-            status.setId(DebtStatus.PAID);
-        }else{
-            status.setId(DebtStatus.PARTIALLY_PAID);
+        if(debt.getStatus() == DebtStatus.PAID || next == null){
+            throw new DebtAlreadyPaidException();
         }
 
-        debt.setBalanceDue(newBalanceDue);
+        InstallmentPayment payment = calculator.calculate(debt, next, installment.getValue(), today);
+
+        long newBalanceDueCents = payment.getNewBalanceDueCents();
+        DebtStatus status = newBalanceDueCents == 0 ? DebtStatus.PAID : remainingStatus(debt, today);
+
+        debt.setBalanceDue(Money.toBigDecimal(newBalanceDueCents));
         debt.setStatus(status);
         debt.setUpdatedAt(LocalDateTime.now());
+        next.setPaidAt(LocalDateTime.now());
 
-        debtRepository.save(debt);
-
-        installment.setInterestRate(finalInterestRate);
+        installment.setInterestRate(payment.getInterestRate());
         installment.setDebt(debt);
         installment.setCreatedAt(LocalDateTime.now());
 
-        return installmentRepository.save(installment);
+        eventPublisher.publishEvent(new DebtChangedEvent(debt.getId()));
+    }
+
+    /**
+     * Status of a debt that still has a balance after a payment: a payment never takes a debt out of OVERDUE, and
+     * marks a debt the sweep hasn't reached yet.
+     */
+    private static DebtStatus remainingStatus(Debt debt, LocalDate today){
+        return today.isAfter(debt.getDueDate()) ? DebtStatus.OVERDUE : DebtStatus.PARTIALLY_PAID;
     }
 }
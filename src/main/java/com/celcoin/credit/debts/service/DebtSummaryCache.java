@@ -0,0 +1,44 @@
+package com.celcoin.credit.debts.service;
+
+import com.celcoin.credit.debts.valueobject.DebtSummaryResponse;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * Keeps the portfolio summary of the current day, so its aggregation runs at most once per refresh interval whatever
+ * the number of debts. Once the interval has passed the next read still gets the cached summary while a new one is
+ * computed in the background; a new day, or a summary older than the expiration, is computed before answering.
+ */
+@Service
+public class DebtSummaryCache {
+
+    public static final String CACHE_NAME = "debt-summary";
+
+    private final LoadingCache<LocalDate, DebtSummaryResponse> summaries;
+
+    public DebtSummaryCache(DebtService debtService,
+                            MeterRegistry meterRegistry,
+                            @Value("${bu-credit.summary-cache.refresh-after-write:30s}") Duration refreshAfterWrite,
+                            @Value("${bu-credit.summary-cache.expire-after-write:10m}") Duration expireAfterWrite){
+
+        this.summaries = Caffeine.newBuilder()
+                                 .maximumSize(1)
+                                 .refreshAfterWrite(refreshAfterWrite)
+                                 .expireAfterWrite(expireAfterWrite)
+                                 .recordStats()
+                                 .build(debtService::getSummary);
+        CaffeineCacheMetrics.monitor(meterRegistry, summaries, CACHE_NAME);
+    }
+
+    public DebtSummaryResponse getSummary(){
+
+        return summaries.get(LocalDate.now());
+    }
+}
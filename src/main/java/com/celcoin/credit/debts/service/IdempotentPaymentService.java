@@ -0,0 +1,107 @@
+package com.celcoin.credit.debts.service;
+
+import com.celcoin.credit.debts.entity.IdempotencyKey;
+import com.celcoin.credit.debts.entity.Installment;
+import com.celcoin.credit.debts.exception.IdempotencyKeyReusedException;
+import com.celcoin.credit.debts.mapper.DebtMapper;
+import com.celcoin.credit.debts.repository.IdempotencyKeyRepository;
+import com.celcoin.credit.debts.valueobject.CompletedPayment;
+import com.celcoin.credit.debts.valueobject.InstallmentResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Pays installments at most once per Idempotency-Key. The key is stored with the installment in the payment
+ * transaction, and completed payments are kept in a bounded in-memory cache so retries are answered without
+ * reaching the database. A failed payment is answered with the stored payment of its key, if any: a concurrent request
+ * with the same key waits for the first one on the row locks of the payment and fails once it has committed.
+ */
+@Service
+public class IdempotentPaymentService {
+
+    public static final String CACHE_NAME = "installment-idempotency";
+
+    private final DebtService debtService;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<String, CompletedPayment> completedPayments;
+
+    public IdempotentPaymentService(DebtService debtService,
+                                    IdempotencyKeyRepository idempotencyKeyRepository,
+                                    EntityManager entityManager,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${bu-credit.idempotency.cache.maximum-size:10000}") long maximumSize,
+                                    @Value("${bu-credit.idempotency.cache.expire-after-write:24h}") Duration expireAfterWrite){
+        this.debtService = debtService;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.completedPayments = Caffeine.newBuilder()
+                                         .maximumSize(maximumSize)
+                                         .expireAfterWrite(expireAfterWrite)
+                                         .recordStats()
+                                         .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, completedPayments, CACHE_NAME);
+    }
+
+    public InstallmentResponse payInstallment(String key, Long debtId, Installment installment){
+
+        CompletedPayment completed = completedPayments.getIfPresent(key);
+
+        if(completed == null){
+            completed = findCompletedPayment(key).orElseGet(() -> pay(key, debtId, installment));
+            completedPayments.put(key, completed);
+        }
+
+        if(!completed.getDebtId().equals(debtId)){
+            throw new IdempotencyKeyReusedException();
+        }
+
+        return completed.getInstallment();
+    }
+
+    private CompletedPayment pay(String key, Long debtId, Installment installment){
+
+        try{
+            return transactionTemplate.execute(status -> {
+                Installment createdInstallment = debtService.payInstallment(debtId, installment);
+
+                IdempotencyKey idempotencyKey = new IdempotencyKey();
+                idempotencyKey.setKey(key);
+                idempotencyKey.setDebtId(debtId);
+                idempotencyKey.setInstallment(createdInstallment);
+                idempotencyKey.setCreatedAt(LocalDateTime.now());
+
+                // persist instead of save, which would merge into a key committed concurrently instead of failing
+                entityManager.persist(idempotencyKey);
+                entityManager.flush();
+
+                return new CompletedPayment(debtId, DebtMapper.toInstallmentResponse(createdInstallment));
+            });
+        }catch(RuntimeException e){
+            // A concurrent request with the same key committed first. This payment then failed on the duplicate key, or
+            // earlier on the installment the other one paid: the debt is paid or the next installment has another value
+            return findCompletedPayment(key).orElseThrow(() -> e);
+        }
+    }
+
+    private Optional<CompletedPayment> findCompletedPayment(String key){
+
+        return idempotencyKeyRepository.findWithInstallmentByKey(key)
+                                       .map(stored -> new CompletedPayment(stored.getDebtId(),
+                                                                           DebtMapper.toInstallmentResponse(stored.getInstallment())));
+    }
+}
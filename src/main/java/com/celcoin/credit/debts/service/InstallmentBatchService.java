@@ -0,0 +1,155 @@
+package com.celcoin.credit.debts.service;
+
+import com.celcoin.credit.debts.entity.Debt;
+import com.celcoin.credit.debts.entity.Installment;
+import com.celcoin.credit.debts.entity.ScheduledInstallment;
+import com.celcoin.credit.debts.exception.BatchChunkFailedException;
+import com.celcoin.credit.debts.exception.DebtAlreadyPaidException;
+import com.celcoin.credit.debts.exception.DebtNotFoundException;
+import com.celcoin.credit.debts.exception.DebtOverdueException;
+import com.celcoin.credit.debts.exception.IncorrectValueException;
+import com.celcoin.credit.debts.repository.DebtRepository;
+import com.celcoin.credit.debts.repository.InstallmentRepository;
+import com.celcoin.credit.debts.repository.InstallmentScheduleRepository;
+import com.celcoin.credit.debts.valueobject.BatchPayInstallmentItem;
+import com.celcoin.credit.debts.valueobject.InstallmentBatchResult;
+import com.celcoin.credit.debts.valueobject.PaymentMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies many installment payments with the rules of {@link DebtService#payInstallment}, one transaction per chunk.
+ * Each chunk reads the unpaid schedule rows and then the debts it pays, each with one query, and writes installments
+ * and debts through JDBC batches. In {@link PaymentMode#ATOMIC} mode both reads lock their rows, in the order a single
+ * payment takes them, schedule row before debt, so concurrent payments of the same debts wait for the chunk instead of
+ * overwriting it or deadlocking with it. {@link PaymentMode#ENTITY} mode reads them without locks.
+ */
+@Service
+public class InstallmentBatchService {
+
+    private final DebtService debtService;
+    private final DebtRepository debtRepository;
+    private final InstallmentRepository installmentRepository;
+    private final InstallmentScheduleRepository installmentScheduleRepository;
+    private final DebtMetrics metrics;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final PaymentMode paymentMode;
+
+    public InstallmentBatchService(DebtService debtService,
+                                   DebtRepository debtRepository,
+                                   InstallmentRepository installmentRepository,
+                                   InstallmentScheduleRepository installmentScheduleRepository,
+                                   DebtMetrics metrics,
+                                   EntityManager entityManager,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${bu-credit.batch.chunk-size:500}") int chunkSize,
+                                   @Value("${bu-credit.payment.mode:atomic}") PaymentMode paymentMode){
+        this.debtService = debtService;
+        this.debtRepository = debtRepository;
+        this.installmentRepository = installmentRepository;
+        this.installmentScheduleRepository = installmentScheduleRepository;
+        this.metrics = metrics;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.paymentMode = paymentMode;
+    }
+
+    public List<InstallmentBatchResult> payInstallments(List<BatchPayInstallmentItem> items){
+
+        List<InstallmentBatchResult> results = new ArrayList<>(items.size());
+
+        for(int from = 0; from < items.size(); from += chunkSize){
+            List<BatchPayInstallmentItem> chunk = items.subList(from, Math.min(from + chunkSize, items.size()));
+            results.addAll(payChunk(chunk));
+        }
+
+        return results;
+    }
+
+    private List<InstallmentBatchResult> payChunk(List<BatchPayInstallmentItem> chunk){
+
+        try{
+            return transactionTemplate.execute(status -> applyChunk(chunk));
+        }catch(DataAccessException | PersistenceException | TransactionException e){
+            BatchChunkFailedException error = new BatchChunkFailedException(e);
+            return chunk.stream()
+                        .map(item -> InstallmentBatchResult.failed(item.getDebtId(), error))
+                        .collect(Collectors.toList());
+        }
+    }
+
+    private List<InstallmentBatchResult> applyChunk(List<BatchPayInstallmentItem> chunk){
+
+        List<Long> debtIds = chunk.stream().map(BatchPayInstallmentItem::getDebtId).distinct().toList();
+        boolean lock = paymentMode == PaymentMode.ATOMIC;
+
+        // Unpaid installments of every debt in schedule order, several payments of one debt take them one after another
+        Map<Long, Deque<ScheduledInstallment>> schedules = new HashMap<>();
+        for(ScheduledInstallment scheduled : lock ? installmentScheduleRepository.lockUnpaidByDebtIds(debtIds)
+                                                  : installmentScheduleRepository.findUnpaidByDebtIds(debtIds)){
+            schedules.computeIfAbsent(scheduled.getDebt().getId(), id -> new ArrayDeque<>()).add(scheduled);
+        }
+
+        // Locked after the schedule rows, as single payments lock them, so the balances include every payment before it
+        Map<Long, Debt> debts = (lock ? debtRepository.lockAllById(debtIds) : debtRepository.findAllById(debtIds))
+                                .stream()
+                                .collect(Collectors.toMap(Debt::getId, Function.identity()));
+
+        LocalDate today = LocalDate.now();
+        List<InstallmentBatchResult> results = new ArrayList<>(chunk.size());
+        List<Installment> installments = new ArrayList<>(chunk.size());
+
+        for(BatchPayInstallmentItem item : chunk){
+            Debt debt = debts.get(item.getDebtId());
+            if(debt == null){
+                DebtNotFoundException e = new DebtNotFoundException();
+                metrics.countException(e);
+                results.add(InstallmentBatchResult.failed(item.getDebtId(), e));
+                continue;
+            }
+
+            Installment installment = new Installment();
+            installment.setValue(item.getValue());
+
+            Deque<ScheduledInstallment> unpaid = schedules.getOrDefault(debt.getId(), new ArrayDeque<>());
+            try{
+                debtService.applyInstallment(debt, unpaid.peekFirst(), installment, today);
+            }catch(DebtAlreadyPaidException | DebtOverdueException | IncorrectValueException e){
+                metrics.countException(e);
+                results.add(InstallmentBatchResult.failed(item.getDebtId(), e));
+                continue;
+            }
+            unpaid.pollFirst();
+
+            installments.add(installment);
+            results.add(InstallmentBatchResult.paid(item.getDebtId(), installment));
+        }
+
+        installmentRepository.saveAll(installments);
+
+        // Flush the batched inserts/updates now and keep the persistence context from growing across chunks
+        entityManager.flush();
+        entityManager.clear();
+
+        return results;
+    }
+}
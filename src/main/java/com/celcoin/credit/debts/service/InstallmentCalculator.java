@@ -0,0 +1,100 @@
+package com.celcoin.credit.debts.service;
+
+import com.celcoin.credit.debts.entity.Debt;
+import com.celcoin.credit.debts.entity.ScheduledInstallment;
+import com.celcoin.credit.debts.exception.DebtOverdueException;
+import com.celcoin.credit.debts.exception.IncorrectValueException;
+import com.celcoin.credit.debts.valueobject.InstallmentPayment;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Amount rules of an installment payment, kept apart from DebtService so they can be exercised without a database.
+ * Amounts are computed in cents and the interest rate in basis points, so a payment doesn't allocate intermediate
+ * BigDecimals.
+ */
+public class InstallmentCalculator {
+
+    private static final long BASIS_POINTS = 10_000;
+    private static final int MICRO_SCALE = Money.SCALE + 4;
+
+    private final BigDecimal interestRate;
+    private final long interestRateBasisPoints;
+
+    /**
+     * @param interestRate overdue interest rate in percent, with basis point precision (e.g. 5 or 2.75)
+     */
+    public InstallmentCalculator(BigDecimal interestRate){
+        this.interestRate = interestRate;
+        this.interestRateBasisPoints = interestRate.movePointRight(2).setScale(0, RoundingMode.HALF_EVEN).longValueExact();
+    }
+
+    /**
+     * Splits the total value of a debt in numberOfInstallments installments of total / n rounded HALF_EVEN, the last
+     * one taking the rest so the schedule adds up to the total exactly. Installments fall due monthly, the last one on
+     * the due date of the debt, which still decides whether a payment is overdue.
+     */
+    public List<ScheduledInstallment> schedule(Debt debt){
+
+        int installments = debt.getNumberOfInstallments();
+        long totalCents = Money.toCents(debt.getTotalValue());
+        long installmentCents = Money.divideHalfEven(totalCents, installments);
+        if(installmentCents * (installments - 1) > totalCents){
+            // Rounding up tiny amounts would leave a negative last installment
+            installmentCents = totalCents / installments;
+        }
+
+        List<ScheduledInstallment> schedule = new ArrayList<>(installments);
+        for(int number = 1; number <= installments; number++){
+            long valueCents = number < installments ? installmentCents : totalCents - installmentCents * (installments - 1);
+
+            ScheduledInstallment scheduled = new ScheduledInstallment();
+            scheduled.setDebt(debt);
+            scheduled.setNumber(number);
+            scheduled.setValue(Money.toBigDecimal(valueCents));
+            scheduled.setDueDate(debt.getDueDate().minusMonths(installments - number));
+            schedule.add(scheduled);
+        }
+
+        return schedule;
+    }
+
+    /**
+     * Checks the paid value against the next scheduled installment, plus interest when the debt is overdue.
+     */
+    public InstallmentPayment calculate(Debt debt, ScheduledInstallment scheduled, BigDecimal paidValue, LocalDate today){
+
+        boolean overdue = today.isAfter(debt.getDueDate());
+        long rateBasisPoints = overdue ? interestRateBasisPoints : 0;
+
+        long installmentCents = Money.toCents(scheduled.getValue());
+
+        // Installment value with interest in millionths, exact for any basis point rate
+        long dueMicros = installmentCents * (BASIS_POINTS + rateBasisPoints);
+
+        if(!matches(paidValue, dueMicros)){
+            BigDecimal finalInstallmentValue = BigDecimal.valueOf(dueMicros, MICRO_SCALE);
+            if(overdue){
+                throw new DebtOverdueException(finalInstallmentValue, interestRate);
+            }
+            throw new IncorrectValueException(finalInstallmentValue);
+        }
+
+        long newBalanceDueCents = Money.toCents(debt.getBalanceDue()) - installmentCents;
+
+        return new InstallmentPayment(installmentCents, overdue ? interestRate : BigDecimal.ZERO, newBalanceDueCents);
+    }
+
+    private static boolean matches(BigDecimal paidValue, long dueMicros){
+
+        if(Money.hasCents(paidValue)){
+            return Money.toCents(paidValue) * BASIS_POINTS == dueMicros;
+        }
+
+        return paidValue.compareTo(BigDecimal.valueOf(dueMicros, MICRO_SCALE)) == 0;
+    }
+}
@@ -0,0 +1,51 @@
+package com.celcoin.credit.debts.service;
+
+import java.math.BigDecimal;
+
+/**
+ * Fixed-point arithmetic on amounts held as a long number of cents, matching the DECIMAL(9, 2) money columns.
+ */
+public final class Money {
+
+    public static final int SCALE = 2;
+
+    private Money(){}
+
+    /**
+     * @throws ArithmeticException if the value has non-zero digits past the cents or doesn't fit in a long
+     */
+    public static long toCents(BigDecimal value){
+        return value.movePointRight(SCALE).longValueExact();
+    }
+
+    public static boolean hasCents(BigDecimal value){
+        return value.scale() <= SCALE || value.stripTrailingZeros().scale() <= SCALE;
+    }
+
+    public static BigDecimal toBigDecimal(long cents){
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    /**
+     * Same result as {@code BigDecimal.divide(divisor, 2, RoundingMode.HALF_EVEN)} on the amount in cents.
+     */
+    public static long divideHalfEven(long cents, long divisor){
+
+        long quotient = cents / divisor;
+        long remainder = cents % divisor;
+
+        if(remainder == 0){
+            return quotient;
+        }
+
+        long twiceRemainder = Math.abs(remainder) * 2;
+        long absDivisor = Math.abs(divisor);
+        long awayFromZero = (cents < 0) == (divisor < 0) ? 1 : -1;
+
+        if(twiceRemainder > absDivisor || (twiceRemainder == absDivisor && (quotient & 1) != 0)){
+            return quotient + awayFromZero;
+        }
+
+        return quotient;
+    }
+}
@@ -0,0 +1,175 @@
+package com.celcoin.credit.debts.service;
+
+import com.celcoin.credit.debts.entity.JobLease;
+import com.celcoin.credit.debts.repository.DebtRepository;
+import com.celcoin.credit.debts.repository.JobLeaseRepository;
+import com.celcoin.credit.debts.valueobject.DebtChangedEvent;
+import com.celcoin.credit.debts.valueobject.DebtCursor;
+import com.celcoin.credit.debts.valueobject.DebtKey;
+import com.celcoin.credit.debts.valueobject.DebtStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Marks unpaid debts due before today as OVERDUE. Debts are walked in (dueDate, id) order from a checkpoint kept in
+ * the job_leases row, one short transaction per chunk with a pause between chunks, so the sweep never holds many locks
+ * and its write rate is bounded by chunk-size / chunk-pause.
+ * <p>
+ * Only the node holding the lease sweeps; every chunk extends the lease and moves the checkpoint in the same
+ * transaction, and a chunk of a node that lost its lease is rolled back. The checkpoint lets an interrupted walk resume
+ * where it stopped, and is cleared once a walk reaches the last candidate: debts locked by a payment are skipped, and
+ * when that payment rolls back (say its idempotency key turns out to be a concurrent duplicate) the debt is still
+ * unpaid behind the checkpoint. The next walk starts over and only reads the candidates left, through the
+ * (status_id, due_date, id) index.
+ */
+@Service
+public class OverdueSweepService {
+
+    public static final String JOB_NAME = "overdue-sweep";
+
+    // Checkpoint of the first sweep, before any due date in use
+    private static final DebtCursor START = new DebtCursor(LocalDate.of(1900, 1, 1), 0L);
+
+    private final DebtRepository debtRepository;
+    private final JobLeaseRepository jobLeaseRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final String owner;
+    private final int chunkSize;
+    private final Duration chunkPause;
+    private final Duration leaseDuration;
+
+    public OverdueSweepService(DebtRepository debtRepository,
+                               JobLeaseRepository jobLeaseRepository,
+                               ApplicationEventPublisher eventPublisher,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${bu-credit.overdue-sweep.chunk-size:500}") int chunkSize,
+                               @Value("${bu-credit.overdue-sweep.chunk-pause:100ms}") Duration chunkPause,
+                               @Value("${bu-credit.overdue-sweep.lease-duration:5m}") Duration leaseDuration){
+        this.debtRepository = debtRepository;
+        this.jobLeaseRepository = jobLeaseRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.owner = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+        this.chunkSize = chunkSize;
+        this.chunkPause = chunkPause;
+        this.leaseDuration = leaseDuration;
+    }
+
+    @Scheduled(fixedDelayString = "${bu-credit.overdue-sweep.interval:5m}",
+               initialDelayString = "${bu-credit.overdue-sweep.initial-delay:1m}")
+    public void sweep(){
+
+        sweep(LocalDate.now());
+    }
+
+    /**
+     * @return number of debts marked OVERDUE, 0 when another node holds the lease
+     */
+    public int sweep(LocalDate today){
+
+        Integer acquired = transactionTemplate.execute(status -> jobLeaseRepository.acquire(JOB_NAME, owner,
+                LocalDateTime.now(), LocalDateTime.now().plus(leaseDuration)));
+        if(acquired == null || acquired == 0){
+            return 0;
+        }
+
+        int marked = 0;
+        boolean walked = false;
+        try{
+            JobLease lease = jobLeaseRepository.findById(JOB_NAME).orElseThrow();
+            DebtCursor checkpoint = lease.getCheckpointDueDate() == null
+                    ? START
+                    : new DebtCursor(lease.getCheckpointDueDate(), lease.getCheckpointId());
+
+            while(true){
+                DebtCursor after = checkpoint;
+                List<DebtKey> swept = transactionTemplate.execute(status -> {
+                    List<DebtKey> chunk = sweepChunk(today, after);
+                    if(chunk == null){
+                        status.setRollbackOnly();
+                    }
+                    return chunk;
+                });
+
+                if(swept == null){
+                    return marked;
+                }
+                if(swept.isEmpty()){
+                    walked = true;
+                    return marked;
+                }
+
+                marked += swept.size();
+                DebtKey last = swept.get(swept.size() - 1);
+                checkpoint = new DebtCursor(last.getDueDate(), last.getId());
+
+                if(swept.size() < chunkSize){
+                    walked = true;
+                    return marked;
+                }
+                if(!pause()){
+                    return marked;
+                }
+            }
+        }finally{
+            boolean clearCheckpoint = walked;
+            transactionTemplate.executeWithoutResult(status -> {
+                if(clearCheckpoint){
+                    jobLeaseRepository.releaseAndClearCheckpoint(JOB_NAME, owner, LocalDateTime.now());
+                }else{
+                    jobLeaseRepository.release(JOB_NAME, owner, LocalDateTime.now());
+                }
+            });
+        }
+    }
+
+    /**
+     * @return the debts marked OVERDUE, or null when the lease was lost and the chunk has to be rolled back
+     */
+    private List<DebtKey> sweepChunk(LocalDate today, DebtCursor after){
+
+        List<DebtKey> chunk = debtRepository.lockOverdueCandidates(today, after.getDueDate(), after.getId(),
+                                                                   DebtStatus.CREATED.getId(),
+                                                                   DebtStatus.PARTIALLY_PAID.getId(),
+                                                                   chunkSize);
+        if(chunk.isEmpty()){
+            return chunk;
+        }
+
+        DebtKey last = chunk.get(chunk.size() - 1);
+        int leased = jobLeaseRepository.checkpoint(JOB_NAME, owner, LocalDateTime.now().plus(leaseDuration),
+                                                   last.getDueDate(), last.getId());
+        if(leased == 0){
+            return null;
+        }
+
+        List<Long> ids = chunk.stream().map(DebtKey::getId).toList();
+        debtRepository.updateStatus(ids, DebtStatus.OVERDUE, LocalDateTime.now());
+        ids.forEach(id -> eventPublisher.publishEvent(new DebtChangedEvent(id)));
+
+        return chunk;
+    }
+
+    private boolean pause(){
+
+        try{
+            Thread.sleep(chunkPause);
+            return true;
+        }catch(InterruptedException e){
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.celcoin.credit.debts.service;
+
+import com.celcoin.credit.debts.exception.DebtNotFoundException;
+import com.celcoin.credit.debts.repository.ReactiveDebtRepository;
+import com.celcoin.credit.debts.valueobject.DebtCursor;
+import com.celcoin.credit.debts.valueobject.DebtFilter;
+import com.celcoin.credit.debts.valueobject.DebtResponse;
+import com.celcoin.credit.debts.valueobject.DebtResponsePage;
+import com.celcoin.credit.debts.valueobject.DebtSort;
+import com.celcoin.credit.debts.valueobject.InstallmentResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reads of {@link DebtService} without blocking: same filters, ordering, cursor and not found handling.
+ */
+public class ReactiveDebtService {
+
+    private final ReactiveDebtRepository reactiveDebtRepository;
+
+    public ReactiveDebtService(ReactiveDebtRepository reactiveDebtRepository){
+        this.reactiveDebtRepository = reactiveDebtRepository;
+    }
+
+    public Mono<DebtResponsePage> getDebts(DebtFilter filter, DebtSort sort, DebtCursor after, int limit){
+
+        // One extra row tells whether there is a next page without issuing a count query
+        return reactiveDebtRepository.findAll(filter, sort, after, limit + 1)
+                                     .collectList()
+                                     .flatMap(debts -> {
+                                         List<DebtResponse> page = debts.size() > limit ? debts.subList(0, limit) : debts;
+                                         DebtCursor nextCursor = null;
+
+                                         if(page.size() < debts.size()){
+                                             DebtResponse last = page.get(limit - 1);
+                                             nextCursor = new DebtCursor(sort, sortKey(last, sort), last.getId());
+                                         }
+
+                                         DebtResponsePage result = new DebtResponsePage(page, nextCursor);
+                                         return withInstallments(page).thenReturn(result);
+                                     });
+    }
+
+    public Mono<DebtResponse> getDebt(Long id){
+
+        return reactiveDebtRepository.findById(id)
+                                     .switchIfEmpty(Mono.error(DebtNotFoundException::new))
+                                     .flatMap(debt -> withInstallments(List.of(debt)).thenReturn(debt));
+    }
+
+    private static Comparable<?> sortKey(DebtResponse debt, DebtSort sort){
+
+        return switch(sort){
+            case DUE_DATE, DUE_DATE_DESC -> debt.getDueDate();
+            case CREATED_AT, CREATED_AT_DESC -> debt.getCreatedAt();
+            case BALANCE_DUE, BALANCE_DUE_DESC -> debt.getBalanceDue();
+        };
+    }
+
+    private Mono<Void> withInstallments(List<DebtResponse> debts){
+
+        if(debts.isEmpty()){
+            return Mono.empty();
+        }
+
+        return reactiveDebtRepository.findInstallments(debts.stream().map(DebtResponse::getId).toList())
+                                     .doOnNext(installments -> debts.forEach(debt -> {
+                                         Collection<InstallmentResponse> ofDebt = installments.get(debt.getId());
+                                         debt.setInstallments(ofDebt == null ? new ArrayList<>() : new ArrayList<>(ofDebt));
+                                     }))
+                                     .then();
+    }
+}
@@ -1,30 +1,103 @@
 package com.celcoin.credit.debts.specification;
 
 import com.celcoin.credit.debts.entity.Debt;
+import com.celcoin.credit.debts.valueobject.DebtCursor;
+import com.celcoin.credit.debts.valueobject.DebtFilter;
+import com.celcoin.credit.debts.valueobject.DebtStatus;
+import com.celcoin.credit.debts.valueobject.NameMatch;
 import jakarta.persistence.criteria.Path;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 public final class DebtSpecification {
 
     private DebtSpecification(){}
 
-    public static Specification<Debt> hasCreditorName(String creditorName){
-        return (root, query, cb) -> creditorName == null ? cb.conjunction() : cb.equal(root.get("creditorName"), creditorName);
+    /**
+     * Every filter of GET /api/debts, conditions left null match any debt.
+     */
+    public static Specification<Debt> matches(DebtFilter filter){
+        return Specification.where(hasCreditorName(filter.getCreditorName(), filter.getCreditorNameMatch()))
+                            .and(hasDueDate(filter.getDueDate()))
+                            .and(isBetween("dueDate", filter.getDueDateFrom(), filter.getDueDateTo()))
+                            .and(isBetween("balanceDue", filter.getBalanceDueMin(), filter.getBalanceDueMax()))
+                            .and(isCreatedAfter(filter.getCreatedAfter()))
+                            .and(hasStatus(filter.getStatusId()));
+    }
+
+    public static Specification<Debt> hasId(Long id){
+        return (root, query, cb) -> cb.equal(root.get("id"), id);
+    }
+
+    public static Specification<Debt> hasCreditorName(String creditorName, NameMatch match){
+        return (root, query, cb) -> {
+            if(creditorName == null){
+                return cb.conjunction();
+            }
+            Path<String> name = root.get("creditorName");
+            return switch(match){
+                case EXACT -> cb.equal(name, creditorName);
+                case IGNORE_CASE -> cb.equal(cb.lower(name), cb.lower(cb.literal(creditorName)));
+                case PREFIX, CONTAINS -> cb.like(cb.lower(name), cb.lower(cb.literal(match.toParameter(creditorName))),
+                                                 NameMatch.LIKE_ESCAPE);
+            };
+        };
     }
 
     public static Specification<Debt> hasDueDate(LocalDate dueDate){
         return (root, query, cb) -> dueDate == null ? cb.conjunction() : cb.equal(root.get("dueDate"), dueDate);
     }
 
+    /**
+     * Inclusive bounds on the attribute, either one may be null.
+     */
+    public static <T extends Comparable<? super T>> Specification<Debt> isBetween(String attribute, T from, T to){
+        return (root, query, cb) -> {
+            Path<T> path = root.get(attribute);
+            if(from != null && to != null){
+                return cb.between(path, from, to);
+            }
+            if(from != null){
+                return cb.greaterThanOrEqualTo(path, from);
+            }
+            return to == null ? cb.conjunction() : cb.lessThanOrEqualTo(path, to);
+        };
+    }
+
+    public static Specification<Debt> isCreatedAfter(LocalDateTime createdAfter){
+        return (root, query, cb) -> createdAfter == null ? cb.conjunction() : cb.greaterThan(root.get("createdAt"), createdAfter);
+    }
+
     public static Specification<Debt> hasStatus(Integer statusId){
         return (root, query, cb) -> {
             if(statusId == null){
                 return cb.conjunction();
             }
-            Path<Debt> status = root.get("status");
-            return cb.equal(status.get("id"), statusId);
+            return DebtStatus.findById(statusId)
+                             .map(status -> cb.equal(root.get("status"), status))
+                             .orElseGet(cb::disjunction);
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Specification<Debt> isAfter(DebtCursor cursor){
+        return (root, query, cb) -> {
+            if(cursor == null){
+                return cb.conjunction();
+            }
+            Path<Comparable> key = root.get(cursor.getSort().getAttribute());
+            Comparable value = cursor.getKey();
+            Path<Long> id = root.get("id");
+            // (key, id) past (cursor.key, cursor.id) in the order of the sort, with a leading bound so the index range
+            // scan starts at the cursor
+            if(cursor.getSort().isDescending()){
+                return cb.and(cb.lessThanOrEqualTo(key, value),
+                              cb.or(cb.lessThan(key, value), cb.lessThan(id, cursor.getId())));
+            }
+            return cb.and(cb.greaterThanOrEqualTo(key, value),
+                          cb.or(cb.greaterThan(key, value), cb.greaterThan(id, cursor.getId())));
         };
     }
 }
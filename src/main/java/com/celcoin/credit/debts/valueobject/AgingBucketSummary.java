@@ -0,0 +1,19 @@
+package com.celcoin.credit.debts.valueobject;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+/**
+ * Number of unpaid debts overdue by a range of days and the sum of their total value and balance due.
+ */
+@Getter
+@AllArgsConstructor
+public class AgingBucketSummary {
+
+    private String bucket;
+    private Long count;
+    private BigDecimal totalValue;
+    private BigDecimal balanceDue;
+}
@@ -0,0 +1,17 @@
+package com.celcoin.credit.debts.valueobject;
+
+import java.math.BigDecimal;
+
+/**
+ * Totals of the overdue debts of one aging bucket, numbered from 0 (up to 30 days past due) to 3 (more than 90).
+ */
+public interface AgingBucketTotals {
+
+    Integer getBucket();
+
+    Long getCount();
+
+    BigDecimal getTotalValue();
+
+    BigDecimal getBalanceDue();
+}
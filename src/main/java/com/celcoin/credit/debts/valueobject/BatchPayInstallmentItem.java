@@ -0,0 +1,20 @@
+package com.celcoin.credit.debts.valueobject;
+
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+public class BatchPayInstallmentItem {
+
+    @NotNull
+    private Long debtId;
+
+    @NotNull
+    @Digits(integer = 7, fraction = 2)
+    private BigDecimal value;
+}
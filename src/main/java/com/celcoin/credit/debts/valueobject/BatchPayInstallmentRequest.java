@@ -0,0 +1,18 @@
+package com.celcoin.credit.debts.valueobject;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class BatchPayInstallmentRequest {
+
+    @NotEmpty
+    @Size(max = 10000)
+    private List<@Valid BatchPayInstallmentItem> payments;
+}
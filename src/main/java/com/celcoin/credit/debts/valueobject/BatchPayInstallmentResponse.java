@@ -0,0 +1,16 @@
+package com.celcoin.credit.debts.valueobject;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class BatchPayInstallmentResponse {
+
+    private Long debtId;
+    private Integer status;
+    private InstallmentResponse installment;
+    private List<String> errors;
+}
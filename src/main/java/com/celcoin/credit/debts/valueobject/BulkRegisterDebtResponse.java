@@ -0,0 +1,15 @@
+package com.celcoin.credit.debts.valueobject;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class BulkRegisterDebtResponse {
+
+    private long registered;
+    private long rejected;
+    private List<String> errors;
+}
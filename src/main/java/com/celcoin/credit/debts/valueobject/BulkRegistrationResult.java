@@ -0,0 +1,43 @@
+package com.celcoin.credit.debts.valueobject;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk registration. Only the first errors are kept so the result stays small whatever the input size.
+ */
+@Getter
+public class BulkRegistrationResult {
+
+    private final int maxReportedErrors;
+    private final List<String> errors = new ArrayList<>();
+    private long registered;
+    private long rejected;
+    private boolean completed = true;
+
+    public BulkRegistrationResult(int maxReportedErrors){
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public void registered(int count){
+        registered += count;
+    }
+
+    public void rejected(long count, List<String> errors){
+        rejected += count;
+        errors.forEach(this::reportError);
+    }
+
+    public void aborted(String error){
+        completed = false;
+        reportError(error);
+    }
+
+    private void reportError(String error){
+        if(errors.size() < maxReportedErrors){
+            errors.add(error);
+        }
+    }
+}
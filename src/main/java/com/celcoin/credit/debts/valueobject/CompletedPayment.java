@@ -0,0 +1,15 @@
+package com.celcoin.credit.debts.valueobject;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Response of a payment made with an idempotency key, kept to answer retries of the same key.
+ */
+@Getter
+@AllArgsConstructor
+public class CompletedPayment {
+
+    private Long debtId;
+    private InstallmentResponse installment;
+}
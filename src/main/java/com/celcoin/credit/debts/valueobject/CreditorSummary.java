@@ -0,0 +1,19 @@
+package com.celcoin.credit.debts.valueobject;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+/**
+ * Number of debts of a creditor and the sum of their total value and balance due.
+ */
+@Getter
+@AllArgsConstructor
+public class CreditorSummary {
+
+    private String creditorName;
+    private Long count;
+    private BigDecimal totalValue;
+    private BigDecimal balanceDue;
+}
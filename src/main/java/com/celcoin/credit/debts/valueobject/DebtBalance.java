@@ -0,0 +1,13 @@
+package com.celcoin.credit.debts.valueobject;
+
+import java.math.BigDecimal;
+
+/**
+ * Balance and status of a debt right after a payment was applied to it.
+ */
+public interface DebtBalance {
+
+    BigDecimal getBalanceDue();
+
+    Integer getStatusId();
+}
@@ -0,0 +1,14 @@
+package com.celcoin.credit.debts.valueobject;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when a debt is registered or paid, so copies of it held outside the database can be dropped.
+ */
+@Getter
+@AllArgsConstructor
+public class DebtChangedEvent {
+
+    private Long debtId;
+}
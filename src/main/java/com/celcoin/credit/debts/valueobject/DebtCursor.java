@@ -0,0 +1,70 @@
+package com.celcoin.credit.debts.valueobject;
+
+import com.celcoin.credit.debts.exception.InvalidCursorException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position for the debts listing, pointing at the (sort key, id) pair of the last debt of a page. A
+ * cursor is only valid for the order it was built in.
+ */
+@Getter
+@AllArgsConstructor
+public class DebtCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private DebtSort sort;
+    private Comparable<?> key;
+    private Long id;
+
+    /**
+     * Position in dueDate order.
+     */
+    public DebtCursor(LocalDate dueDate, Long id){
+        this(DebtSort.DUE_DATE, dueDate, id);
+    }
+
+    /**
+     * Due date of a cursor in dueDate order.
+     */
+    public LocalDate getDueDate(){
+        return (LocalDate) key;
+    }
+
+    public String encode(){
+        // Cursors in the default order keep their original "dueDate|id" form
+        String raw = (sort == DebtSort.DUE_DATE ? "" : sort.getParameter() + SEPARATOR) + key + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static DebtCursor decode(String cursor){
+        return decode(cursor, DebtSort.DUE_DATE);
+    }
+
+    /**
+     * @throws InvalidCursorException when the cursor is malformed or was built for another order
+     */
+    public static DebtCursor decode(String cursor, DebtSort sort){
+        try{
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            DebtSort cursorSort = parts.length == 2 ? DebtSort.DUE_DATE
+                                : parts.length == 3 ? DebtSort.fromParameter(parts[0])
+                                : null;
+            if(cursorSort != sort){
+                throw new InvalidCursorException();
+            }
+            return new DebtCursor(sort,
+                                  sort.getKeyParser().apply(parts[parts.length - 2]),
+                                  Long.valueOf(parts[parts.length - 1]));
+        }catch(IllegalArgumentException | DateTimeParseException e){
+            throw new InvalidCursorException();
+        }
+    }
+}
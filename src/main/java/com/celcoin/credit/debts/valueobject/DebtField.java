@@ -0,0 +1,75 @@
+package com.celcoin.credit.debts.valueobject;
+
+import com.celcoin.credit.debts.exception.InvalidFieldsException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Fields of {@link DebtResponse} that can be asked for with the fields and include parameters of GET /api/debts and
+ * GET /api/debts/{id}, with the attribute of the Debt entity each one is read from.
+ */
+@Getter
+@AllArgsConstructor
+public enum DebtField {
+
+    ID("id", "id"),
+    CREDITOR_NAME("creditorName", "creditorName"),
+    TOTAL_VALUE("totalValue", "totalValue"),
+    BALANCE_DUE("balanceDue", "balanceDue"),
+    NUMBER_OF_INSTALLMENTS("numberOfInstallments", "numberOfInstallments"),
+    DUE_DATE("dueDate", "dueDate"),
+    STATUS_ID("statusId", "status"),
+    CREATED_AT("createdAt", "createdAt"),
+    UPDATED_AT("updatedAt", "updatedAt"),
+
+    /**
+     * Read by a query of its own, only issued when asked for.
+     */
+    INSTALLMENTS("installments", null);
+
+    public static final String INCLUDE_INSTALLMENTS = "installments";
+
+    private final String name;
+    private final String attribute;
+
+    /**
+     * Fields selected by a comma separated list of field names and an include of installments. Every field but the
+     * installments when no list is given, and always the id and updatedAt, the version ETags are computed from.
+     *
+     * @throws InvalidFieldsException when a name isn't a field or include isn't installments
+     */
+    public static Set<DebtField> parse(String fields, String include){
+
+        Set<DebtField> selected;
+        if(fields == null){
+            selected = EnumSet.complementOf(EnumSet.of(INSTALLMENTS));
+        }else{
+            selected = EnumSet.of(ID, UPDATED_AT);
+            for(String name : fields.split(",")){
+                selected.add(fromName(name.trim()));
+            }
+        }
+
+        if(include != null){
+            if(!INCLUDE_INSTALLMENTS.equals(include.trim())){
+                throw new InvalidFieldsException();
+            }
+            selected.add(INSTALLMENTS);
+        }
+
+        return selected;
+    }
+
+    private static DebtField fromName(String name){
+
+        for(DebtField field : values()){
+            if(field.name.equals(name)){
+                return field;
+            }
+        }
+        throw new InvalidFieldsException();
+    }
+}
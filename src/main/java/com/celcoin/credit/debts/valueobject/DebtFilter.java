@@ -0,0 +1,23 @@
+package com.celcoin.credit.debts.valueobject;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+public class DebtFilter {
+
+    private String creditorName;
+    private NameMatch creditorNameMatch = NameMatch.EXACT;
+    private LocalDate dueDate;
+    private LocalDate dueDateFrom;
+    private LocalDate dueDateTo;
+    private BigDecimal balanceDueMin;
+    private BigDecimal balanceDueMax;
+    private LocalDateTime createdAfter;
+    private Integer statusId;
+}
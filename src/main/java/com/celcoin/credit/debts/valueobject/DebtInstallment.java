@@ -0,0 +1,21 @@
+package com.celcoin.credit.debts.valueobject;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * An installment with the id of its debt, read by a constructor expression instead of loading the entities.
+ */
+@Getter
+@AllArgsConstructor
+public class DebtInstallment {
+
+    private Long debtId;
+    private Long id;
+    private BigDecimal value;
+    private BigDecimal interestRate;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,13 @@
+package com.celcoin.credit.debts.valueobject;
+
+import java.time.LocalDate;
+
+/**
+ * Position of a debt in (dueDate, id) order.
+ */
+public interface DebtKey {
+
+    Long getId();
+
+    LocalDate getDueDate();
+}
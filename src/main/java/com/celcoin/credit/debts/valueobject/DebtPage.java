@@ -0,0 +1,15 @@
+package com.celcoin.credit.debts.valueobject;
+
+import com.celcoin.credit.debts.entity.Debt;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class DebtPage {
+
+    private List<Debt> debts;
+    private DebtCursor nextCursor;
+}
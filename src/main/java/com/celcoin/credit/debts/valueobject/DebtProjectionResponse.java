@@ -0,0 +1,11 @@
+package com.celcoin.credit.debts.valueobject;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * A debt read with fields or include: the fields that were not requested are null and left out, so the response carries
+ * just the requested ones. Whole debts keep every field of {@link DebtResponse}, null or not.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DebtProjectionResponse extends DebtResponse {
+}
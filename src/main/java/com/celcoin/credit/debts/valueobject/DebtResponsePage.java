@@ -0,0 +1,17 @@
+package com.celcoin.credit.debts.valueobject;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * A page of already mapped debts, as read by the reactive API or by projections, without going through the entities.
+ */
+@Getter
+@AllArgsConstructor
+public class DebtResponsePage {
+
+    private List<DebtResponse> debts;
+    private DebtCursor nextCursor;
+}
@@ -0,0 +1,53 @@
+package com.celcoin.credit.debts.valueobject;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+/**
+ * Orders GET /api/debts can be sorted in, chosen with its sort parameter. Ties are broken by id in the same
+ * direction, so every order is walked by a forward or backward scan of a (column, id) index.
+ */
+@Getter
+@AllArgsConstructor
+public enum DebtSort {
+
+    DUE_DATE("dueDate", "dueDate", false, LocalDate::parse),
+    DUE_DATE_DESC("-dueDate", "dueDate", true, LocalDate::parse),
+    CREATED_AT("createdAt", "createdAt", false, LocalDateTime::parse),
+    CREATED_AT_DESC("-createdAt", "createdAt", true, LocalDateTime::parse),
+    BALANCE_DUE("balanceDue", "balanceDue", false, BigDecimal::new),
+    BALANCE_DUE_DESC("-balanceDue", "balanceDue", true, BigDecimal::new);
+
+    /**
+     * Values accepted by the sort parameter.
+     */
+    public static final String PATTERN = "-?(dueDate|createdAt|balanceDue)";
+
+    private final String parameter;
+    private final String attribute;
+    private final boolean descending;
+    private final Function<String, ? extends Comparable<?>> keyParser;
+
+    public Sort toSort(){
+        return Sort.by(descending ? Sort.Direction.DESC : Sort.Direction.ASC, attribute, "id");
+    }
+
+    /**
+     * @throws IllegalArgumentException when the value isn't one of {@link #PATTERN}
+     */
+    public static DebtSort fromParameter(String parameter){
+
+        for(DebtSort sort : values()){
+            if(sort.parameter.equals(parameter)){
+                return sort;
+            }
+        }
+        throw new IllegalArgumentException("Invalid sort: " + parameter);
+    }
+}
@@ -1,10 +1,40 @@
 package com.celcoin.credit.debts.valueobject;
 
-public final class DebtStatus {
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 
-    private DebtStatus(){}
+import java.util.Optional;
 
-    public static final Integer CREATED = 1;
-    public static final Integer PARTIALLY_PAID = 2;
-    public static final Integer PAID = 3;
+/**
+ * Debt statuses, mirroring the rows of bu_credit_schema.status so reads never need to join that table.
+ */
+@Getter
+@AllArgsConstructor
+public enum DebtStatus {
+
+    CREATED(1),
+    PARTIALLY_PAID(2),
+    PAID(3),
+    OVERDUE(4);
+
+    private static final DebtStatus[] BY_ID = new DebtStatus[values().length + 1];
+
+    static {
+        for(DebtStatus status : values()){
+            BY_ID[status.id] = status;
+        }
+    }
+
+    private final Integer id;
+
+    public static Optional<DebtStatus> findById(Integer id){
+        if(id == null || id < 0 || id >= BY_ID.length){
+            return Optional.empty();
+        }
+        return Optional.ofNullable(BY_ID[id]);
+    }
+
+    public static DebtStatus fromId(Integer id){
+        return findById(id).orElseThrow(() -> new IllegalArgumentException("Unknown debt status id: " + id));
+    }
 }
@@ -0,0 +1,17 @@
+package com.celcoin.credit.debts.valueobject;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class DebtSummaryResponse {
+
+    private LocalDate date;
+    private List<StatusSummary> statuses;
+    private List<CreditorSummary> creditors;
+    private List<AgingBucketSummary> aging;
+}
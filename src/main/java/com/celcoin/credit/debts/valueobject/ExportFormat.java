@@ -0,0 +1,24 @@
+package com.celcoin.credit.debts.valueobject;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Formats of GET /api/debts/export, chosen with its format parameter (ndjson or csv).
+ */
+@Getter
+@AllArgsConstructor
+public enum ExportFormat {
+
+    /**
+     * One JSON object per debt and line, with its installments.
+     */
+    NDJSON("application/x-ndjson"),
+
+    /**
+     * One line per installment, with the columns of its debt.
+     */
+    CSV("text/csv");
+
+    private final String mediaType;
+}
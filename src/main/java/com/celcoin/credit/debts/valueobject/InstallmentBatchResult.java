@@ -0,0 +1,22 @@
+package com.celcoin.credit.debts.valueobject;
+
+import com.celcoin.credit.debts.entity.Installment;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class InstallmentBatchResult {
+
+    private Long debtId;
+    private Installment installment;
+    private RuntimeException error;
+
+    public static InstallmentBatchResult paid(Long debtId, Installment installment){
+        return new InstallmentBatchResult(debtId, installment, null);
+    }
+
+    public static InstallmentBatchResult failed(Long debtId, RuntimeException error){
+        return new InstallmentBatchResult(debtId, null, error);
+    }
+}
@@ -0,0 +1,15 @@
+package com.celcoin.credit.debts.valueobject;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+@Getter
+@AllArgsConstructor
+public class InstallmentPayment {
+
+    private long installmentValueCents;
+    private BigDecimal interestRate;
+    private long newBalanceDueCents;
+}
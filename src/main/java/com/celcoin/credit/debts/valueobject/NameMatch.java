@@ -0,0 +1,69 @@
+package com.celcoin.credit.debts.valueobject;
+
+/**
+ * How the creditorName filter of GET /api/debts is compared with the creditor names, chosen with its
+ * creditorNameMatch parameter. Every mode but EXACT ignores case and is served by an index on lower(creditor_name).
+ */
+public enum NameMatch {
+
+    /**
+     * The same name, case included.
+     */
+    EXACT,
+
+    /**
+     * The same name in any case.
+     */
+    IGNORE_CASE,
+
+    /**
+     * Names starting with the filter, in any case.
+     */
+    PREFIX,
+
+    /**
+     * Names containing the filter, in any case.
+     */
+    CONTAINS;
+
+    public static final char LIKE_ESCAPE = '\\';
+
+    /**
+     * Condition on the column for queries written in SQL, comparing it with the named parameter bound to
+     * {@link #toParameter}.
+     */
+    public String toSql(String column, String parameter){
+
+        return switch(this){
+            case EXACT -> column + " = :" + parameter;
+            case IGNORE_CASE -> "lower(" + column + ") = lower(:" + parameter + ")";
+            case PREFIX, CONTAINS -> "lower(" + column + ") like lower(:" + parameter + ") escape '" + LIKE_ESCAPE + "'";
+        };
+    }
+
+    /**
+     * The value to compare with, a like pattern for PREFIX and CONTAINS with the wildcards of the name escaped.
+     */
+    public String toParameter(String name){
+
+        return switch(this){
+            case EXACT, IGNORE_CASE -> name;
+            case PREFIX -> escapeLike(name) + "%";
+            case CONTAINS -> "%" + escapeLike(name) + "%";
+        };
+    }
+
+    private static String escapeLike(String name){
+
+        StringBuilder escaped = new StringBuilder(name.length() + 4);
+        for(int i = 0; i < name.length(); i++){
+            char c = name.charAt(i);
+            if(c == '%' || c == '_' || c == LIKE_ESCAPE){
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+
+        return escaped.toString();
+    }
+}
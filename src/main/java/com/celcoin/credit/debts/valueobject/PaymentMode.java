@@ -0,0 +1,21 @@
+package com.celcoin.credit.debts.valueobject;
+
+/**
+ * How DebtService.payInstallment and InstallmentBatchService.payInstallments write payments, chosen with the
+ * bu-credit.payment.mode property.
+ */
+public enum PaymentMode {
+
+    /**
+     * Loads the debt, applies the payment in Java and saves the entity, batches included. Concurrent payments on the
+     * same debt can read the same balance and lose one of the decrements.
+     */
+    ENTITY,
+
+    /**
+     * Applies the decrement and the status transition in a single conditional UPDATE, so concurrent payments are
+     * serialized by the database row lock for the duration of that statement only. A batch chunk locks the schedule
+     * rows and debts it pays before applying them, and single payments of those debts wait for it to commit.
+     */
+    ATOMIC
+}
@@ -1,6 +1,8 @@
 package com.celcoin.credit.debts.valueobject;
 
 import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.Getter;
@@ -22,6 +24,8 @@ public class RegisterDebtRequest {
     private BigDecimal totalValue;
 
     @NotNull
+    @Min(1)
+    @Max(360)
     private Integer numberOfInstallments;
 
     @NotNull
@@ -0,0 +1,24 @@
+package com.celcoin.credit.debts.valueobject;
+
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+/**
+ * Number of debts in a status and the sum of their total value and balance due.
+ */
+@Getter
+public class StatusSummary {
+
+    private final Integer statusId;
+    private final Long count;
+    private final BigDecimal totalValue;
+    private final BigDecimal balanceDue;
+
+    public StatusSummary(DebtStatus status, Long count, BigDecimal totalValue, BigDecimal balanceDue){
+        this.statusId = status.getId();
+        this.count = count;
+        this.totalValue = totalValue;
+        this.balanceDue = balanceDue;
+    }
+}
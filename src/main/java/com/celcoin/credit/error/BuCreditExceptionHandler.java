@@ -3,7 +3,10 @@ package com.celcoin.credit.error;
 import com.celcoin.credit.debts.exception.DebtAlreadyPaidException;
 import com.celcoin.credit.debts.exception.DebtNotFoundException;
 import com.celcoin.credit.debts.exception.DebtOverdueException;
+import com.celcoin.credit.debts.exception.IdempotencyKeyReusedException;
 import com.celcoin.credit.debts.exception.IncorrectValueException;
+import com.celcoin.credit.debts.exception.InvalidCursorException;
+import com.celcoin.credit.debts.exception.InvalidFieldsException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
@@ -12,6 +15,7 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
 import java.util.List;
@@ -20,6 +24,26 @@ import java.util.stream.Collectors;
 @RestControllerAdvice
 public class BuCreditExceptionHandler extends ResponseEntityExceptionHandler {
 
+    /**
+     * Status a business exception is answered with, for responses that report several outcomes in one body.
+     */
+    public static HttpStatus statusOf(RuntimeException e){
+
+        if(e instanceof DebtNotFoundException){
+            return HttpStatus.NOT_FOUND;
+        }
+        if(e instanceof DebtAlreadyPaidException){
+            return HttpStatus.CONFLICT;
+        }
+        if(e instanceof DebtOverdueException || e instanceof IncorrectValueException){
+            return HttpStatus.BAD_REQUEST;
+        }
+        if(e instanceof IdempotencyKeyReusedException){
+            return HttpStatus.UNPROCESSABLE_ENTITY;
+        }
+        return HttpStatus.INTERNAL_SERVER_ERROR;
+    }
+
     @Override
     protected ResponseEntity<Object> handleMethodArgumentNotValid(MethodArgumentNotValidException e,
                                                                   HttpHeaders headers,
@@ -37,6 +61,25 @@ public class BuCreditExceptionHandler extends ResponseEntityExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
     }
 
+    @Override
+    protected ResponseEntity<Object> handleHandlerMethodValidationException(HandlerMethodValidationException e,
+                                                                            HttpHeaders headers,
+                                                                            HttpStatusCode status,
+                                                                            WebRequest request){
+
+        List<String> errors = e.getAllValidationResults()
+                               .stream()
+                               .flatMap(result -> result.getResolvableErrors()
+                                                        .stream()
+                                                        .map(error -> result.getMethodParameter().getParameterName() +
+                                                                      ": " + error.getDefaultMessage()))
+                               .collect(Collectors.toList());
+
+        ErrorResponse response = new ErrorResponse(errors);
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
+
     @ExceptionHandler(DebtNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleDebtNotFoundException(DebtNotFoundException e){
 
@@ -72,4 +115,31 @@ public class BuCreditExceptionHandler extends ResponseEntityExceptionHandler {
 
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
     }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidCursorException(InvalidCursorException e){
+
+        List<String> errors = List.of(e.getMessage());
+        ErrorResponse response = new ErrorResponse(errors);
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
+
+    @ExceptionHandler(InvalidFieldsException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidFieldsException(InvalidFieldsException e){
+
+        List<String> errors = List.of(e.getMessage());
+        ErrorResponse response = new ErrorResponse(errors);
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKeyReusedException(IdempotencyKeyReusedException e){
+
+        List<String> errors = List.of(e.getMessage());
+        ErrorResponse response = new ErrorResponse(errors);
+
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(response);
+    }
 }
@@ -1,6 +1,7 @@
-INSERT INTO bu_credit_schema.status
+INSERT INTO status
 (id, description)
 VALUES
 (1, 'CREATED'),
 (2, 'PARTIALLY_PAID'),
-(3, 'PAID');
\ No newline at end of file
+(3, 'PAID')
+ON CONFLICT (id) DO NOTHING;
@@ -0,0 +1,3 @@
+-- Debts and installments inserted by the batch and bulk endpoints take their ids in blocks
+ALTER SEQUENCE debts_id_seq INCREMENT BY 50;
+ALTER SEQUENCE installments_id_seq INCREMENT BY 50;
@@ -0,0 +1,6 @@
+CREATE TABLE IF NOT EXISTS idempotency_keys(
+    idempotency_key VARCHAR(100) PRIMARY KEY,
+    debt_id BIGINT NOT NULL REFERENCES debts(id),
+    installment_id BIGINT NOT NULL REFERENCES installments(id),
+    created_at TIMESTAMP NOT NULL
+);
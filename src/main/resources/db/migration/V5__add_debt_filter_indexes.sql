@@ -0,0 +1,14 @@
+-- Indexes for the queries of GET /api/debts, which always orders by (due_date, id) and filters by any combination of
+-- creditor_name, due_date and status_id.
+
+-- No filter, the due_date filter and the keyset cursor
+CREATE INDEX CONCURRENTLY IF NOT EXISTS debts_due_date_id_idx ON debts (due_date, id);
+
+-- creditor_name alone or with due_date and/or status_id, already in page order
+CREATE INDEX CONCURRENTLY IF NOT EXISTS debts_creditor_name_due_date_id_idx ON debts (creditor_name, due_date, id);
+
+-- status_id alone or with due_date, already in page order
+CREATE INDEX CONCURRENTLY IF NOT EXISTS debts_status_id_due_date_id_idx ON debts (status_id, due_date, id);
+
+-- Installments of a page of debts and of a single debt
+CREATE INDEX CONCURRENTLY IF NOT EXISTS installments_debt_id_idx ON installments (debt_id);
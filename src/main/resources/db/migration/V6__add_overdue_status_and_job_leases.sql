@@ -0,0 +1,20 @@
+INSERT INTO status
+(id, description)
+VALUES
+(4, 'OVERDUE')
+ON CONFLICT (id) DO NOTHING;
+
+-- One row per background job: the node holding the lease runs it and keeps its checkpoint here
+CREATE TABLE IF NOT EXISTS job_leases(
+    name VARCHAR(50) PRIMARY KEY,
+    owner VARCHAR(100),
+    leased_until TIMESTAMP NOT NULL,
+    checkpoint_due_date DATE,
+    checkpoint_id BIGINT
+);
+
+INSERT INTO job_leases
+(name, leased_until)
+VALUES
+('overdue-sweep', TIMESTAMP '1970-01-01 00:00:00')
+ON CONFLICT (name) DO NOTHING;
@@ -0,0 +1,4 @@
+-- Trigram operator classes for the creditor name indexes of V8, a trusted extension the owner of the database can
+-- create. Kept apart from V8: Flyway won't run a transactional statement in the same migration as the concurrent
+-- index builds.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
@@ -0,0 +1,38 @@
+CREATE TABLE IF NOT EXISTS installment_schedule(
+    id BIGSERIAL PRIMARY KEY,
+    debt_id BIGINT NOT NULL REFERENCES debts(id),
+    number INTEGER NOT NULL,
+    value DECIMAL(9, 2) NOT NULL,
+    due_date DATE NOT NULL,
+    paid_at TIMESTAMP,
+    CONSTRAINT installment_schedule_debt_id_number_key UNIQUE (debt_id, number)
+);
+
+-- A debt's schedule rows are inserted in one batch at registration
+ALTER SEQUENCE installment_schedule_id_seq INCREMENT BY 50;
+
+-- Schedule of the existing debts, with the amounts of InstallmentCalculator.schedule: total / n rounded HALF_EVEN
+-- for every installment but the last, which takes the rest, and monthly due dates ending on the debt's due date.
+-- As many installments as were already paid are marked paid.
+INSERT INTO installment_schedule (debt_id, number, value, due_date, paid_at)
+SELECT d.id,
+       s.number,
+       CASE WHEN s.number < t.n THEN a.base ELSE t.total - a.base * (t.n - 1) END / 100.0,
+       CAST(d.due_date - make_interval(months => t.n - s.number) AS DATE),
+       CASE WHEN s.number <= p.paid THEN d.updated_at END
+FROM debts d
+CROSS JOIN LATERAL (SELECT CAST(d.total_value * 100 AS BIGINT) AS total, d.number_of_installments AS n) t
+CROSS JOIN LATERAL (SELECT t.total / NULLIF(t.n, 0) AS q, t.total % NULLIF(t.n, 0) AS r) qr
+CROSS JOIN LATERAL (SELECT qr.q + CASE WHEN 2 * qr.r > t.n OR (2 * qr.r = t.n AND qr.q % 2 = 1) THEN 1 ELSE 0 END AS rounded) h
+CROSS JOIN LATERAL (SELECT CASE WHEN h.rounded * (t.n - 1) > t.total THEN qr.q ELSE h.rounded END AS base) a
+CROSS JOIN LATERAL (SELECT count(*) AS paid FROM installments i WHERE i.debt_id = d.id) p
+CROSS JOIN LATERAL generate_series(1, t.n) AS s(number)
+WHERE t.n > 0
+  AND NOT EXISTS (SELECT 1 FROM installment_schedule x WHERE x.debt_id = d.id);
+
+-- Debts whose installments were all paid but kept a residual cent of the old per-payment rounding
+UPDATE debts d
+SET status_id = 3, balance_due = 0
+WHERE d.status_id <> 3
+  AND d.number_of_installments > 0
+  AND NOT EXISTS (SELECT 1 FROM installment_schedule s WHERE s.debt_id = d.id AND s.paid_at IS NULL);
@@ -0,0 +1,14 @@
+-- Indexes for the creditorNameMatch modes of GET /api/debts, all on lower(creditor_name) so they ignore case. The
+-- trigram operator class comes from pg_trgm, created by V7.1.
+
+-- IGNORE_CASE alone or with due_date, already in page order
+CREATE INDEX CONCURRENTLY IF NOT EXISTS debts_lower_creditor_name_due_date_id_idx
+    ON debts (lower(creditor_name), due_date, id);
+
+-- PREFIX, a range scan of the pattern whatever the collation of the database
+CREATE INDEX CONCURRENTLY IF NOT EXISTS debts_lower_creditor_name_pattern_idx
+    ON debts (lower(creditor_name) text_pattern_ops);
+
+-- CONTAINS, for filters of three characters or more
+CREATE INDEX CONCURRENTLY IF NOT EXISTS debts_lower_creditor_name_trgm_idx
+    ON debts USING gin (lower(creditor_name) gin_trgm_ops);
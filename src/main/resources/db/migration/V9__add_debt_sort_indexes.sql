@@ -0,0 +1,8 @@
+-- Indexes for the sort orders of GET /api/debts besides dueDate, which is served by debts_due_date_id_idx. Each one
+-- is walked forwards or backwards from the keyset cursor and also serves the range filter on its column.
+
+-- sort=createdAt and -createdAt, and the createdAfter filter
+CREATE INDEX CONCURRENTLY IF NOT EXISTS debts_created_at_id_idx ON debts (created_at, id);
+
+-- sort=balanceDue and -balanceDue, and the balanceDueMin/balanceDueMax filters
+CREATE INDEX CONCURRENTLY IF NOT EXISTS debts_balance_due_id_idx ON debts (balance_due, id);
@@ -0,0 +1,44 @@
+package com.celcoin.credit.benchmark;
+
+import com.celcoin.credit.debts.entity.Debt;
+import com.celcoin.credit.debts.entity.Installment;
+import com.celcoin.credit.debts.valueobject.DebtStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+final class BenchmarkData {
+
+    private BenchmarkData(){}
+
+    static Debt debt(long id, int numberOfInstallments, int paidInstallments){
+
+        Debt debt = new Debt();
+        debt.setId(id);
+        debt.setCreditorName("Creditor " + id);
+        debt.setTotalValue(BigDecimal.valueOf(100L * numberOfInstallments * 100, 2));
+        debt.setNumberOfInstallments(numberOfInstallments);
+        debt.setDueDate(LocalDate.of(2030, 4, 25));
+        debt.setBalanceDue(BigDecimal.valueOf(100L * (numberOfInstallments - paidInstallments) * 100, 2));
+        debt.setStatus(paidInstallments == 0 ? DebtStatus.CREATED : DebtStatus.PARTIALLY_PAID);
+        debt.setCreatedAt(LocalDateTime.of(2024, 1, 10, 9, 30));
+        debt.setUpdatedAt(LocalDateTime.of(2024, 2, 10, 9, 30));
+
+        List<Installment> installments = new ArrayList<>(paidInstallments);
+        for(int i = 0; i < paidInstallments; i++){
+            Installment installment = new Installment();
+            installment.setId(id * 1000 + i);
+            installment.setValue(BigDecimal.valueOf(10000, 2));
+            installment.setInterestRate(BigDecimal.ZERO);
+            installment.setDebt(debt);
+            installment.setCreatedAt(LocalDateTime.of(2024, 2, 10, 9, 30));
+            installments.add(installment);
+        }
+        debt.setInstallments(installments);
+
+        return debt;
+    }
+}
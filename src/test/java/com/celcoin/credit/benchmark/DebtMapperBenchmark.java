@@ -0,0 +1,43 @@
+package com.celcoin.credit.benchmark;
+
+import com.celcoin.credit.debts.entity.Debt;
+import com.celcoin.credit.debts.mapper.DebtMapper;
+import com.celcoin.credit.debts.valueobject.DebtResponse;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the hand-written DebtMapper with the reflection based ModelMapper it replaced,
+ * for debts carrying 0, 12 and 120 installments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DebtMapperBenchmark {
+
+    @Param({"0", "12", "120"})
+    private int installments;
+
+    private final ModelMapper modelMapper = new ModelMapper();
+    private Debt debt;
+
+    @Setup
+    public void setup(){
+        debt = BenchmarkData.debt(1L, Math.max(installments, 1), installments);
+    }
+
+    @Benchmark
+    public DebtResponse modelMapper(){
+        return modelMapper.map(debt, DebtResponse.class);
+    }
+
+    @Benchmark
+    public DebtResponse debtMapper(){
+        return DebtMapper.toDebtResponse(debt);
+    }
+}
@@ -0,0 +1,79 @@
+package com.celcoin.credit.benchmark;
+
+import com.celcoin.credit.debts.mapper.DebtMapper;
+import com.celcoin.credit.debts.valueobject.DebtResponse;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding of a 1000 debt page of GET /api/debts as JSON, CBOR and Smile, with the mappers configured as
+ * the HTTP message converters. The payload size of each format is printed once per fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DebtResponseFormatBenchmark {
+
+    private static final int PAGE_SIZE = 1000;
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private List<DebtResponse> page;
+    private byte[] payload;
+
+    @Setup
+    public void setup() throws IOException {
+
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+                                                         .factory(factory(format))
+                                                         .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                                                         .build();
+        writer = mapper.writerFor(List.class);
+        reader = mapper.readerFor(new TypeReference<List<DebtResponse>>(){});
+
+        page = new ArrayList<>(PAGE_SIZE);
+        for(long id = 1; id <= PAGE_SIZE; id++){
+            page.add(DebtMapper.toDebtResponse(BenchmarkData.debt(id, 12, 6)));
+        }
+
+        payload = writer.writeValueAsBytes(page);
+        System.out.printf("%n%s payload of %d debts: %d bytes%n", format, PAGE_SIZE, payload.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return writer.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public List<DebtResponse> decode() throws IOException {
+        return reader.readValue(payload);
+    }
+
+    private static JsonFactory factory(String format){
+        return switch(format){
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+    }
+}
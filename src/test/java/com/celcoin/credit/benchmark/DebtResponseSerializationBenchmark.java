@@ -0,0 +1,50 @@
+package com.celcoin.credit.benchmark;
+
+import com.celcoin.credit.debts.mapper.DebtMapper;
+import com.celcoin.credit.debts.valueobject.DebtResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of a GET /api/debts page, at the default and the maximum page size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DebtResponseSerializationBenchmark {
+
+    @Param({"50", "500"})
+    private int pageSize;
+
+    private ObjectWriter writer;
+    private List<DebtResponse> page;
+
+    @Setup
+    public void setup(){
+
+        writer = Jackson2ObjectMapperBuilder.json()
+                                            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                                            .build()
+                                            .writerFor(List.class);
+
+        page = new ArrayList<>(pageSize);
+        for(long id = 1; id <= pageSize; id++){
+            page.add(DebtMapper.toDebtResponse(BenchmarkData.debt(id, 12, 6)));
+        }
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return writer.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,45 @@
+package com.celcoin.credit.benchmark;
+
+import com.celcoin.credit.debts.entity.Debt;
+import com.celcoin.credit.debts.entity.ScheduledInstallment;
+import com.celcoin.credit.debts.service.InstallmentCalculator;
+import com.celcoin.credit.debts.valueobject.InstallmentPayment;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Amount computation of DebtService.payInstallment, on time and in the overdue branch where interest applies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaymentCalculationBenchmark {
+
+    @Param({"false", "true"})
+    private boolean overdue;
+
+    private final InstallmentCalculator calculator = new InstallmentCalculator(BigDecimal.valueOf(5));
+    private Debt debt;
+    private ScheduledInstallment scheduled;
+    private BigDecimal paidValue;
+    private LocalDate today;
+
+    @Setup
+    public void setup(){
+        debt = BenchmarkData.debt(1L, 12, 3);
+        scheduled = calculator.schedule(debt).get(3);
+        today = overdue ? debt.getDueDate().plusDays(1) : debt.getDueDate();
+        paidValue = overdue ? new BigDecimal("105.00") : new BigDecimal("100.00");
+    }
+
+    @Benchmark
+    public InstallmentPayment calculate(){
+        return calculator.calculate(debt, scheduled, paidValue, today);
+    }
+}
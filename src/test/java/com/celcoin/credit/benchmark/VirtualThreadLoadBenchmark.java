@@ -0,0 +1,105 @@
+package com.celcoin.credit.benchmark;
+
+import com.celcoin.credit.BuCreditApplication;
+import com.celcoin.credit.debts.entity.Debt;
+import com.celcoin.credit.debts.service.DebtService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bursts of concurrent GET /api/debts/{id} requests against the whole application, with request handling on Tomcat's
+ * platform thread pool or on virtual threads. Both modes run with the same fixed Tomcat and Hikari pool sizes, on an
+ * in-memory H2 database with the debt cache off so every request reaches JDBC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class VirtualThreadLoadBenchmark {
+
+    private static final int DEBTS = 100;
+    private static final int TOMCAT_THREADS = 50;
+    private static final int CONNECTION_POOL_SIZE = 10;
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    @Param({"50", "500"})
+    private int concurrentRequests;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private List<HttpRequest> requests;
+
+    @Setup
+    public void setup(){
+
+        // Command line arguments, so they take precedence over the environment placeholders of application.yml
+        context = new SpringApplicationBuilder(BuCreditApplication.class)
+                .run("--spring.threads.virtual.enabled=" + virtualThreads,
+                     "--server.port=0",
+                     "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                     "--spring.datasource.url=jdbc:h2:mem:load;DB_CLOSE_DELAY=-1;IGNORE_UNKNOWN_SETTINGS=TRUE",
+                     "--spring.datasource.username=sa",
+                     "--spring.datasource.password=",
+                     "--spring.datasource.hikari.schema=PUBLIC",
+                     "--spring.datasource.hikari.maximum-pool-size=" + CONNECTION_POOL_SIZE,
+                     "--spring.flyway.enabled=false",
+                     "--spring.jpa.hibernate.ddl-auto=create-drop",
+                     "--spring.jpa.properties.hibernate.auto_quote_keyword=true",
+                     "--bu-credit.interest-rate=5",
+                     "--bu-credit.debt-cache.enabled=false",
+                     "--bu-credit.overdue-sweep.enabled=false",
+                     "--logging.level.root=WARN");
+
+        DebtService debtService = context.getBean(DebtService.class);
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        requests = new ArrayList<>(DEBTS);
+        for(int i = 0; i < DEBTS; i++){
+            Debt debt = new Debt();
+            debt.setCreditorName("Creditor " + i);
+            debt.setTotalValue(BigDecimal.valueOf(600));
+            debt.setNumberOfInstallments(3);
+            debt.setDueDate(LocalDate.of(2030, 4, 25));
+            Long id = debtService.registerDebt(debt).getId();
+            requests.add(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/debts/" + id)).build());
+        }
+    }
+
+    @TearDown
+    public void tearDown(){
+        context.close();
+    }
+
+    @Benchmark
+    public int burst(){
+
+        List<CompletableFuture<HttpResponse<byte[]>>> responses = new ArrayList<>(concurrentRequests);
+        for(int i = 0; i < concurrentRequests; i++){
+            responses.add(client.sendAsync(requests.get(i % DEBTS), HttpResponse.BodyHandlers.ofByteArray()));
+        }
+
+        int bytes = 0;
+        for(CompletableFuture<HttpResponse<byte[]>> response : responses){
+            bytes += response.join().body().length;
+        }
+        return bytes;
+    }
+}
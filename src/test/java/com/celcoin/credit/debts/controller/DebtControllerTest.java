@@ -1,41 +1,91 @@
 package com.celcoin.credit.debts.controller;
 
-import com.celcoin.credit.debts.configuration.MapperConfiguration;
+import com.celcoin.credit.debts.configuration.BinaryFormatsConfiguration;
 import com.celcoin.credit.debts.entity.Debt;
 import com.celcoin.credit.debts.entity.Installment;
 import com.celcoin.credit.debts.exception.DebtAlreadyPaidException;
 import com.celcoin.credit.debts.exception.DebtNotFoundException;
 import com.celcoin.credit.debts.exception.DebtOverdueException;
+import com.celcoin.credit.debts.exception.IdempotencyKeyReusedException;
 import com.celcoin.credit.debts.exception.IncorrectValueException;
+import com.celcoin.credit.debts.mapper.DebtMapper;
+import com.celcoin.credit.debts.service.DebtBulkRegistrationService;
+import com.celcoin.credit.debts.service.DebtExportService;
+import com.celcoin.credit.debts.service.DebtResponseCache;
 import com.celcoin.credit.debts.service.DebtService;
+import com.celcoin.credit.debts.service.DebtSummaryCache;
+import com.celcoin.credit.debts.service.IdempotentPaymentService;
+import com.celcoin.credit.debts.service.InstallmentBatchService;
+import com.celcoin.credit.debts.valueobject.AgingBucketSummary;
+import com.celcoin.credit.debts.valueobject.BatchPayInstallmentItem;
+import com.celcoin.credit.debts.valueobject.BatchPayInstallmentRequest;
+import com.celcoin.credit.debts.valueobject.BulkRegistrationResult;
+import com.celcoin.credit.debts.valueobject.CreditorSummary;
+import com.celcoin.credit.debts.valueobject.DebtCursor;
+import com.celcoin.credit.debts.valueobject.DebtField;
+import com.celcoin.credit.debts.valueobject.DebtFilter;
+import com.celcoin.credit.debts.valueobject.DebtPage;
+import com.celcoin.credit.debts.valueobject.DebtProjectionResponse;
+import com.celcoin.credit.debts.valueobject.DebtResponse;
+import com.celcoin.credit.debts.valueobject.DebtResponsePage;
+import com.celcoin.credit.debts.valueobject.DebtSort;
+import com.celcoin.credit.debts.valueobject.DebtStatus;
+import com.celcoin.credit.debts.valueobject.DebtSummaryResponse;
+import com.celcoin.credit.debts.valueobject.InstallmentBatchResult;
+import com.celcoin.credit.debts.valueobject.InstallmentResponse;
+import com.celcoin.credit.debts.valueobject.NameMatch;
 import com.celcoin.credit.debts.valueobject.PayInstallmentRequest;
 import com.celcoin.credit.debts.valueobject.RegisterDebtRequest;
+import com.celcoin.credit.debts.valueobject.StatusSummary;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.mockito.AdditionalAnswers.returnsFirstArg;
 import static org.mockito.AdditionalAnswers.returnsSecondArg;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@Import(MapperConfiguration.class)
 @WebMvcTest(DebtController.class)
+@Import(BinaryFormatsConfiguration.class)
 public class DebtControllerTest {
 
     @Autowired
@@ -47,17 +97,193 @@ public class DebtControllerTest {
     @MockBean
     private DebtService debtService;
 
+    @MockBean
+    private InstallmentBatchService installmentBatchService;
+
+    @MockBean
+    private DebtBulkRegistrationService debtBulkRegistrationService;
+
+    @MockBean
+    private DebtExportService debtExportService;
+
+    @MockBean
+    private IdempotentPaymentService idempotentPaymentService;
+
+    @MockBean
+    private DebtResponseCache debtResponseCache;
+
+    @MockBean
+    private DebtSummaryCache debtSummaryCache;
+
     @Test
     void getDebts_WhenCalled_ReturnsOk() throws Exception {
 
         List<Debt> debts = List.of(new Debt(), new Debt(), new Debt());
 
-        when(debtService.getDebts(null, null, null)).thenReturn(debts);
+        when(debtService.getDebts(any(DebtFilter.class), eq(DebtSort.DUE_DATE), isNull(), eq(50))).thenReturn(new DebtPage(debts, null));
+
+        mockMvc.perform(get("/api/debts")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(header().doesNotExist(DebtController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void getDebts_HasNextPage_ReturnsNextCursorHeader() throws Exception {
+
+        List<Debt> debts = List.of(new Debt(), new Debt());
+        DebtCursor next = new DebtCursor(LocalDate.of(2024, 5, 15), 2L);
+
+        when(debtService.getDebts(any(DebtFilter.class), eq(DebtSort.DUE_DATE), isNull(), eq(2))).thenReturn(new DebtPage(debts, next));
+
+        mockMvc.perform(get("/api/debts")
+                .param("limit", "2")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(header().string(DebtController.NEXT_CURSOR_HEADER, next.encode()));
+    }
+
+    @Test
+    void getDebts_InvalidCursor_ReturnsBadRequest() throws Exception {
+
+        mockMvc.perform(get("/api/debts")
+                .param("after", "not-a-cursor")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getDebts_CreditorNameMatch_PassesModeToService() throws Exception {
+
+        when(debtService.getDebts(argThat(filter -> "mar".equals(filter.getCreditorName()) &&
+                                                    filter.getCreditorNameMatch() == NameMatch.PREFIX),
+                                  eq(DebtSort.DUE_DATE), isNull(), eq(50)))
+                .thenReturn(new DebtPage(List.of(new Debt()), null));
+
+        mockMvc.perform(get("/api/debts")
+                .param("creditorName", "mar")
+                .param("creditorNameMatch", "PREFIX")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    void getDebts_UnknownCreditorNameMatch_ReturnsBadRequest() throws Exception {
 
         mockMvc.perform(get("/api/debts")
+                .param("creditorName", "mar")
+                .param("creditorNameMatch", "SOUNDEX")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getDebts_SortAndRangeFilters_PassesThemToService() throws Exception {
+
+        DebtCursor next = new DebtCursor(DebtSort.BALANCE_DUE_DESC, new BigDecimal("150.00"), 7L);
+
+        when(debtService.getDebts(argThat(filter -> LocalDate.of(2024, 5, 1).equals(filter.getDueDateFrom()) &&
+                                                    LocalDate.of(2024, 5, 7).equals(filter.getDueDateTo()) &&
+                                                    BigDecimal.TEN.equals(filter.getBalanceDueMin()) &&
+                                                    LocalDateTime.of(2024, 1, 1, 0, 0).equals(filter.getCreatedAfter())),
+                                  eq(DebtSort.BALANCE_DUE_DESC), isNull(), eq(50)))
+                .thenReturn(new DebtPage(List.of(new Debt()), next));
+
+        String cursor = mockMvc.perform(get("/api/debts")
+                .param("dueDateFrom", "2024-05-01")
+                .param("dueDateTo", "2024-05-07")
+                .param("balanceDueMin", "10")
+                .param("createdAfter", "2024-01-01T00:00:00")
+                .param("sort", "-balanceDue")
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(3)));
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andReturn().getResponse().getHeader(DebtController.NEXT_CURSOR_HEADER);
+
+        // The cursor belongs to -balanceDue, it can't continue another order
+        mockMvc.perform(get("/api/debts")
+                .param("after", cursor)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getDebts_SortNotWhitelisted_ReturnsBadRequest() throws Exception {
+
+        mockMvc.perform(get("/api/debts")
+                .param("sort", "creditorName")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(debtService);
+    }
+
+    @Test
+    void getDebts_LimitAboveMaximum_ReturnsBadRequest() throws Exception {
+
+        mockMvc.perform(get("/api/debts")
+                .param("limit", "100000")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getDebts_WithFields_ReturnsOnlyThoseFields() throws Exception {
+
+        DebtResponse response = new DebtProjectionResponse();
+        response.setId(1L);
+        response.setCreditorName("Pedro");
+        DebtCursor next = new DebtCursor(LocalDate.of(2024, 5, 15), 1L);
+
+        when(debtService.getDebtResponses(any(DebtFilter.class), eq(DebtSort.DUE_DATE), isNull(), eq(1),
+                                          eq(EnumSet.of(DebtField.ID, DebtField.CREDITOR_NAME, DebtField.UPDATED_AT))))
+                .thenReturn(new DebtResponsePage(List.of(response), next));
+
+        mockMvc.perform(get("/api/debts")
+                .param("fields", "creditorName")
+                .param("limit", "1")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].creditorName").value("Pedro"))
+                .andExpect(jsonPath("$[0].totalValue").doesNotExist())
+                .andExpect(jsonPath("$[0].installments").doesNotExist())
+                .andExpect(header().string(DebtController.NEXT_CURSOR_HEADER, next.encode()));
+    }
+
+    @Test
+    void getDebts_UnknownField_ReturnsBadRequest() throws Exception {
+
+        mockMvc.perform(get("/api/debts")
+                .param("fields", "creditorName,password")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[0]").value("Invalid fields"));
+    }
+
+    @Test
+    void getDebt_IncludeInstallments_BypassesCache() throws Exception {
+
+        Long id = 1L;
+        DebtResponse response = new DebtProjectionResponse();
+        response.setId(id);
+        response.setInstallments(List.of(new InstallmentResponse()));
+
+        when(debtService.getDebtResponse(eq(id), eq(EnumSet.of(DebtField.ID, DebtField.UPDATED_AT, DebtField.INSTALLMENTS))))
+                .thenReturn(response);
+
+        mockMvc.perform(get("/api/debts/{id}", id)
+                .param("fields", "id")
+                .param("include", "installments")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.installments", hasSize(1)))
+                .andExpect(jsonPath("$.creditorName").doesNotExist());
+
+        verifyNoInteractions(debtResponseCache);
     }
 
     @Test
@@ -65,7 +291,7 @@ public class DebtControllerTest {
 
         Long id = 1L;
 
-        when(debtService.getDebt(id)).thenThrow(new DebtNotFoundException());
+        when(debtResponseCache.getDebt(id)).thenThrow(new DebtNotFoundException());
 
         mockMvc.perform(get("/api/debts/{id}", id)
                 .contentType(MediaType.APPLICATION_JSON))
@@ -81,7 +307,7 @@ public class DebtControllerTest {
         debt.setId(id);
         debt.setCreditorName("Pedro");
 
-        when(debtService.getDebt(id)).thenReturn(debt);
+        when(debtResponseCache.getDebt(id)).thenReturn(DebtMapper.toDebtResponse(debt));
 
         mockMvc.perform(get("/api/debts/{id}", id)
                 .contentType(MediaType.APPLICATION_JSON))
@@ -89,6 +315,209 @@ public class DebtControllerTest {
                 .andExpect(jsonPath("$.creditorName").value("Pedro"));
     }
 
+    @Test
+    void getDebt_NoFields_ReturnsEveryFieldIncludingNulls() throws Exception {
+
+        Long id = 1L;
+
+        Debt debt = new Debt();
+        debt.setId(id);
+        debt.setCreditorName("Pedro");
+
+        when(debtResponseCache.getDebt(id)).thenReturn(DebtMapper.toDebtResponse(debt));
+
+        String body = mockMvc.perform(get("/api/debts/{id}", id))
+                             .andExpect(status().isOk())
+                             .andReturn().getResponse().getContentAsString();
+
+        List<String> keys = new ArrayList<>();
+        mapper.readTree(body).fieldNames().forEachRemaining(keys::add);
+
+        assertEquals(List.of("id", "creditorName", "totalValue", "balanceDue", "numberOfInstallments", "dueDate",
+                             "installments", "statusId", "createdAt", "updatedAt"), keys);
+    }
+
+    @Test
+    void getDebt_IfNoneMatchCurrentVersion_ReturnsNotModifiedWithoutReadingDebt() throws Exception {
+
+        Long id = 1L;
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 5, 2, 10, 15, 30, 123_456_000);
+
+        Debt debt = new Debt();
+        debt.setId(id);
+        debt.setUpdatedAt(updatedAt);
+
+        when(debtResponseCache.getDebt(id)).thenReturn(DebtMapper.toDebtResponse(debt));
+        when(debtResponseCache.getVersion(id)).thenReturn(updatedAt);
+
+        String eTag = mockMvc.perform(get("/api/debts/{id}", id))
+                             .andExpect(status().isOk())
+                             .andExpect(header().exists(HttpHeaders.ETAG))
+                             .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/debts/{id}", id)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+
+        verify(debtResponseCache, times(1)).getDebt(id);
+    }
+
+    @Test
+    void getDebt_IfNoneMatchOldVersion_ReturnsDebtWithNewETag() throws Exception {
+
+        Long id = 1L;
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 5, 2, 10, 15, 30);
+
+        Debt debt = new Debt();
+        debt.setId(id);
+        debt.setUpdatedAt(updatedAt.plusSeconds(1));
+
+        when(debtResponseCache.getDebt(id)).thenReturn(DebtMapper.toDebtResponse(debt));
+        when(debtResponseCache.getVersion(id)).thenReturn(debt.getUpdatedAt());
+
+        mockMvc.perform(get("/api/debts/{id}", id)
+                .header(HttpHeaders.IF_NONE_MATCH, DebtETags.ofDebt(id, updatedAt, null, MediaType.APPLICATION_JSON)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, DebtETags.ofDebt(id, debt.getUpdatedAt(), null, MediaType.APPLICATION_JSON)))
+                .andExpect(jsonPath("$.id").value(1));
+    }
+
+    @Test
+    void getDebts_IfNoneMatchCurrentPage_ReturnsNotModifiedFromVersions() throws Exception {
+
+        Debt debt = new Debt();
+        debt.setId(3L);
+        debt.setUpdatedAt(LocalDateTime.of(2024, 5, 2, 10, 15, 30));
+        DebtResponse version = new DebtResponse();
+        version.setId(debt.getId());
+        version.setUpdatedAt(debt.getUpdatedAt());
+
+        when(debtService.getDebts(any(DebtFilter.class), eq(DebtSort.DUE_DATE), isNull(), eq(50)))
+                .thenReturn(new DebtPage(List.of(debt), null));
+        when(debtService.getDebtResponses(any(DebtFilter.class), eq(DebtSort.DUE_DATE), isNull(), eq(50),
+                                          eq(EnumSet.of(DebtField.ID, DebtField.UPDATED_AT))))
+                .thenReturn(new DebtResponsePage(List.of(version), null));
+
+        String eTag = mockMvc.perform(get("/api/debts").param("statusId", "1"))
+                             .andExpect(status().isOk())
+                             .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/debts").param("statusId", "1")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        // Another query is another representation
+        mockMvc.perform(get("/api/debts").param("statusId", "2")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+
+        verify(debtService, times(2)).getDebts(any(DebtFilter.class), eq(DebtSort.DUE_DATE), isNull(), eq(50));
+    }
+
+    @Test
+    void getDebts_NoAcceptHeader_ReturnsJson() throws Exception {
+
+        when(debtService.getDebts(any(DebtFilter.class), eq(DebtSort.DUE_DATE), isNull(), eq(50)))
+                .thenReturn(new DebtPage(List.of(binaryFormatDebt()), null));
+
+        mockMvc.perform(get("/api/debts"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andExpect(jsonPath("$[0].dueDate").value("2030-04-25"));
+    }
+
+    @Test
+    void getDebts_AcceptCbor_ReturnsSameDebtsAsCbor() throws Exception {
+
+        Debt debt = binaryFormatDebt();
+        when(debtService.getDebts(any(DebtFilter.class), eq(DebtSort.DUE_DATE), isNull(), eq(50)))
+                .thenReturn(new DebtPage(List.of(debt), null));
+
+        byte[] body = mockMvc.perform(get("/api/debts")
+                .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        CBORMapper cborMapper = CBORMapper.builder().addModule(new JavaTimeModule()).build();
+        DebtResponse[] debts = cborMapper.readValue(body, DebtResponse[].class);
+
+        assertEquals(1, debts.length);
+        assertSameDebt(debt, debts[0]);
+        // Dates are written as in JSON, not as timestamps
+        assertEquals("2030-04-25", cborMapper.readTree(body).get(0).get("dueDate").asText());
+    }
+
+    @Test
+    void getDebt_AcceptSmile_ReturnsDebtAsSmile() throws Exception {
+
+        Debt debt = binaryFormatDebt();
+        when(debtResponseCache.getDebt(debt.getId())).thenReturn(DebtMapper.toDebtResponse(debt));
+
+        byte[] body = mockMvc.perform(get("/api/debts/{id}", debt.getId())
+                .accept(MediaType.valueOf("application/x-jackson-smile")))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        SmileMapper smileMapper = SmileMapper.builder().addModule(new JavaTimeModule()).build();
+
+        assertSameDebt(debt, smileMapper.readValue(body, DebtResponse.class));
+    }
+
+    @Test
+    void getDebtAndGetDebts_JsonAndCbor_GetDifferentETags() throws Exception {
+
+        Debt debt = binaryFormatDebt();
+        when(debtResponseCache.getDebt(debt.getId())).thenReturn(DebtMapper.toDebtResponse(debt));
+        when(debtResponseCache.getVersion(debt.getId())).thenReturn(debt.getUpdatedAt());
+        when(debtService.getDebts(any(DebtFilter.class), eq(DebtSort.DUE_DATE), isNull(), eq(50)))
+                .thenReturn(new DebtPage(List.of(debt), null));
+
+        String jsonETag = mockMvc.perform(get("/api/debts/{id}", debt.getId()))
+                                 .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String cborETag = mockMvc.perform(get("/api/debts/{id}", debt.getId()).accept(MediaType.APPLICATION_CBOR))
+                                 .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String jsonPageETag = mockMvc.perform(get("/api/debts"))
+                                     .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String cborPageETag = mockMvc.perform(get("/api/debts").accept(MediaType.APPLICATION_CBOR))
+                                     .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertNotEquals(jsonETag, cborETag);
+        assertNotEquals(jsonPageETag, cborPageETag);
+
+        // The JSON version doesn't validate a CBOR body, the CBOR one does
+        mockMvc.perform(get("/api/debts/{id}", debt.getId())
+                .accept(MediaType.APPLICATION_CBOR)
+                .header(HttpHeaders.IF_NONE_MATCH, jsonETag))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/debts/{id}", debt.getId())
+                .accept(MediaType.APPLICATION_CBOR)
+                .header(HttpHeaders.IF_NONE_MATCH, cborETag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getSummary_ReturnsOk() throws Exception {
+
+        DebtSummaryResponse summary = new DebtSummaryResponse(LocalDate.now(),
+                List.of(new StatusSummary(DebtStatus.CREATED, 2L, BigDecimal.valueOf(300), BigDecimal.valueOf(300))),
+                List.of(new CreditorSummary("Pedro", 2L, BigDecimal.valueOf(300), BigDecimal.valueOf(300))),
+                List.of(new AgingBucketSummary("0-30", 1L, BigDecimal.valueOf(100), BigDecimal.valueOf(100))));
+
+        when(debtSummaryCache.getSummary()).thenReturn(summary);
+
+        mockMvc.perform(get("/api/debts/summary")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.statuses[0].statusId").value(1))
+                .andExpect(jsonPath("$.creditors[0].creditorName").value("Pedro"))
+                .andExpect(jsonPath("$.aging[0].bucket").value("0-30"));
+    }
+
     @Test
     void registerDebt_InvalidRequest_ReturnsBadRequest() throws Exception {
 
@@ -223,4 +652,199 @@ public class DebtControllerTest {
                         .andExpect(status().isCreated())
                         .andExpect(jsonPath("$.value").value(200.00));
     }
+
+    @Test
+    void payInstallment_IdempotencyKey_ReturnsPaymentOfKey() throws Exception {
+
+        Long debtId = 1L;
+        var request = new PayInstallmentRequest();
+        request.setValue(BigDecimal.valueOf(200));
+
+        InstallmentResponse installment = new InstallmentResponse();
+        installment.setId(7L);
+        installment.setValue(BigDecimal.valueOf(200));
+
+        when(idempotentPaymentService.payInstallment(eq("key-1"), eq(debtId), any(Installment.class))).thenReturn(installment);
+
+        String json = mapper.writeValueAsString(request);
+
+        mockMvc.perform(post("/api/debts/{debtId}/installments", debtId)
+                        .header(DebtController.IDEMPOTENCY_KEY_HEADER, "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                        .andExpect(status().isCreated())
+                        .andExpect(jsonPath("$.id").value(7));
+
+        verifyNoInteractions(debtService);
+    }
+
+    @Test
+    void payInstallment_IdempotencyKeyOfAnotherDebt_ReturnsUnprocessableEntity() throws Exception {
+
+        Long debtId = 1L;
+        var request = new PayInstallmentRequest();
+        request.setValue(BigDecimal.valueOf(200));
+
+        when(idempotentPaymentService.payInstallment(eq("key-1"), eq(debtId), any(Installment.class)))
+                .thenThrow(new IdempotencyKeyReusedException());
+
+        String json = mapper.writeValueAsString(request);
+
+        mockMvc.perform(post("/api/debts/{debtId}/installments", debtId)
+                        .header(DebtController.IDEMPOTENCY_KEY_HEADER, "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                        .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void payInstallments_EmptyRequest_ReturnsBadRequest() throws Exception {
+
+        var request = new BatchPayInstallmentRequest();
+        request.setPayments(List.of());
+
+        String json = mapper.writeValueAsString(request);
+
+        mockMvc.perform(post("/api/debts/installments/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                        .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void payInstallments_ValidRequest_ReturnsResultOfEachPayment() throws Exception {
+
+        var paid = new BatchPayInstallmentItem();
+        paid.setDebtId(1L);
+        paid.setValue(BigDecimal.valueOf(200));
+
+        var notFound = new BatchPayInstallmentItem();
+        notFound.setDebtId(2L);
+        notFound.setValue(BigDecimal.valueOf(200));
+
+        var request = new BatchPayInstallmentRequest();
+        request.setPayments(List.of(paid, notFound));
+
+        Installment installment = new Installment();
+        installment.setValue(BigDecimal.valueOf(200));
+
+        when(installmentBatchService.payInstallments(anyList())).thenReturn(List.of(
+                InstallmentBatchResult.paid(1L, installment),
+                InstallmentBatchResult.failed(2L, new DebtNotFoundException())));
+
+        String json = mapper.writeValueAsString(request);
+
+        mockMvc.perform(post("/api/debts/installments/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$", hasSize(2)))
+                        .andExpect(jsonPath("$[0].status").value(201))
+                        .andExpect(jsonPath("$[0].installment.value").value(200))
+                        .andExpect(jsonPath("$[1].status").value(404))
+                        .andExpect(jsonPath("$[1].errors[0]").value("Debt not found"));
+    }
+
+    @Test
+    void registerDebts_NdjsonStream_ReturnsOk() throws Exception {
+
+        var request = new RegisterDebtRequest();
+        request.setCreditorName("Pedro");
+        request.setTotalValue(BigDecimal.valueOf(600));
+        request.setNumberOfInstallments(3);
+        request.setDueDate(LocalDate.of(2024, 5, 15));
+
+        String line = mapper.writeValueAsString(request);
+
+        when(debtBulkRegistrationService.registerDebts(any())).thenAnswer(invocation -> {
+            MappingIterator<RegisterDebtRequest> requests = invocation.getArgument(0);
+            BulkRegistrationResult result = new BulkRegistrationResult(10);
+            result.registered(requests.readAll().size());
+            return result;
+        });
+
+        mockMvc.perform(post("/api/debts/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(line + "\n" + line + "\n"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.registered").value(2))
+                        .andExpect(jsonPath("$.rejected").value(0));
+    }
+
+    @Test
+    void exportDebts_CsvFormat_StreamsCsvWithFilters() throws Exception {
+
+        doAnswer(invocation -> {
+            invocation.getArgument(1, OutputStream.class).write((DebtExportService.CSV_HEADER + "\n").getBytes());
+            return null;
+        }).when(debtExportService).exportCsv(any(DebtFilter.class), any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/api/debts/export").param("format", "csv").param("statusId", "2"))
+                                  .andExpect(request().asyncStarted())
+                                  .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+               .andExpect(status().isOk())
+               .andExpect(header().string("Content-Type", "text/csv"))
+               .andExpect(header().string("Content-Disposition", "attachment; filename=debts.csv"))
+               .andExpect(content().string(DebtExportService.CSV_HEADER + "\n"));
+    }
+
+    @Test
+    void exportDebts_NoFormat_StreamsNdjson() throws Exception {
+
+        MvcResult result = mockMvc.perform(get("/api/debts/export"))
+                                  .andExpect(request().asyncStarted())
+                                  .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+               .andExpect(status().isOk())
+               .andExpect(header().string("Content-Type", "application/x-ndjson"));
+    }
+
+    @Test
+    void exportDebts_UnknownFormat_ReturnsBadRequest() throws Exception {
+
+        mockMvc.perform(get("/api/debts/export").param("format", "xml"))
+               .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(debtExportService);
+    }
+
+    private static Debt binaryFormatDebt(){
+
+        Debt debt = new Debt();
+        debt.setId(7L);
+        debt.setCreditorName("Pedro");
+        debt.setTotalValue(new BigDecimal("600.00"));
+        debt.setBalanceDue(new BigDecimal("400.00"));
+        debt.setNumberOfInstallments(3);
+        debt.setDueDate(LocalDate.of(2030, 4, 25));
+        debt.setStatus(DebtStatus.PARTIALLY_PAID);
+        debt.setCreatedAt(LocalDateTime.of(2024, 5, 2, 10, 15, 30));
+        debt.setUpdatedAt(LocalDateTime.of(2024, 5, 3, 10, 15, 30));
+
+        Installment installment = new Installment();
+        installment.setId(70L);
+        installment.setValue(new BigDecimal("200.00"));
+        installment.setInterestRate(BigDecimal.ZERO);
+        installment.setCreatedAt(debt.getUpdatedAt());
+        installment.setDebt(debt);
+        debt.setInstallments(List.of(installment));
+
+        return debt;
+    }
+
+    private static void assertSameDebt(Debt expected, DebtResponse actual){
+
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getCreditorName(), actual.getCreditorName());
+        assertEquals(expected.getTotalValue(), actual.getTotalValue());
+        assertEquals(expected.getBalanceDue(), actual.getBalanceDue());
+        assertEquals(expected.getDueDate(), actual.getDueDate());
+        assertEquals(expected.getStatus().getId(), actual.getStatusId());
+        assertEquals(expected.getUpdatedAt(), actual.getUpdatedAt());
+        assertEquals(1, actual.getInstallments().size());
+        assertEquals(new BigDecimal("200.00"), actual.getInstallments().get(0).getValue());
+    }
 }
@@ -0,0 +1,168 @@
+package com.celcoin.credit.debts.controller;
+
+import com.celcoin.credit.debts.exception.DebtNotFoundException;
+import com.celcoin.credit.debts.service.ReactiveDebtService;
+import com.celcoin.credit.debts.valueobject.DebtCursor;
+import com.celcoin.credit.debts.valueobject.DebtFilter;
+import com.celcoin.credit.debts.valueobject.DebtResponse;
+import com.celcoin.credit.debts.valueobject.DebtResponsePage;
+import com.celcoin.credit.debts.valueobject.DebtSort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveDebtHandlerTest {
+
+    private WebTestClient client;
+
+    @Mock
+    private ReactiveDebtService reactiveDebtService;
+
+    @BeforeEach
+    void setup(){
+        this.client = WebTestClient.bindToRouterFunction(new ReactiveDebtHandler(reactiveDebtService).routes()).build();
+    }
+
+    @Test
+    void getDebts_MoreDebtsThanLimit_ReturnsNextCursorHeader(){
+
+        DebtResponse debt = new DebtResponse();
+        debt.setId(2L);
+        DebtCursor next = new DebtCursor(LocalDate.of(2024, 5, 2), 2L);
+
+        when(reactiveDebtService.getDebts(any(DebtFilter.class), eq(DebtSort.DUE_DATE), isNull(), eq(1)))
+                .thenReturn(Mono.just(new DebtResponsePage(List.of(debt), next)));
+
+        client.get().uri("/api/debts?limit=1")
+              .exchange()
+              .expectStatus().isOk()
+              .expectHeader().valueEquals(DebtController.NEXT_CURSOR_HEADER, next.encode())
+              .expectBody()
+              .jsonPath("$.length()").isEqualTo(1)
+              .jsonPath("$[0].id").isEqualTo(2);
+    }
+
+    @Test
+    void getDebts_SortAndCursorOfThatSort_ReadsPageInThatOrder(){
+
+        DebtResponse debt = new DebtResponse();
+        debt.setId(2L);
+        DebtCursor after = new DebtCursor(DebtSort.BALANCE_DUE_DESC, new BigDecimal("350.00"), 5L);
+        DebtCursor next = new DebtCursor(DebtSort.BALANCE_DUE_DESC, new BigDecimal("200.00"), 2L);
+
+        when(reactiveDebtService.getDebts(any(DebtFilter.class), eq(DebtSort.BALANCE_DUE_DESC),
+                                          argThat(cursor -> cursor.getId() == 5L && new BigDecimal("350.00").equals(cursor.getKey())),
+                                          eq(1)))
+                .thenReturn(Mono.just(new DebtResponsePage(List.of(debt), next)));
+
+        client.get().uri("/api/debts?sort=-balanceDue&limit=1&after={after}", after.encode())
+              .exchange()
+              .expectStatus().isOk()
+              .expectHeader().valueEquals(DebtController.NEXT_CURSOR_HEADER, next.encode())
+              .expectBody()
+              .jsonPath("$[0].id").isEqualTo(2);
+    }
+
+    @Test
+    void getDebts_CursorOfAnotherSort_ReturnsBadRequest(){
+
+        DebtCursor after = new DebtCursor(LocalDate.of(2024, 5, 2), 2L);
+
+        client.get().uri("/api/debts?sort=-balanceDue&after={after}", after.encode())
+              .exchange()
+              .expectStatus().isBadRequest();
+
+        verifyNoInteractions(reactiveDebtService);
+    }
+
+    @Test
+    void getDebts_InvalidSort_ReturnsBadRequest(){
+
+        client.get().uri("/api/debts?sort=creditorName")
+              .exchange()
+              .expectStatus().isBadRequest();
+
+        verifyNoInteractions(reactiveDebtService);
+    }
+
+    @Test
+    void getDebts_FieldsOrInclude_ReturnsBadRequest(){
+
+        client.get().uri("/api/debts?fields=id,balanceDue")
+              .exchange()
+              .expectStatus().isBadRequest()
+              .expectBody()
+              .jsonPath("$.errors[0]").isEqualTo("fields: not supported by the reactive API");
+        client.get().uri("/api/debts?include=installments")
+              .exchange()
+              .expectStatus().isBadRequest()
+              .expectBody()
+              .jsonPath("$.errors[0]").isEqualTo("include: not supported by the reactive API");
+
+        verifyNoInteractions(reactiveDebtService);
+    }
+
+    @Test
+    void getDebts_LimitAboveMaximum_ReturnsBadRequest(){
+
+        client.get().uri("/api/debts?limit=100000")
+              .exchange()
+              .expectStatus().isBadRequest()
+              .expectBody()
+              .jsonPath("$.errors[0]").isEqualTo("limit: must be less than or equal to 500");
+
+        verifyNoInteractions(reactiveDebtService);
+    }
+
+    @Test
+    void getDebts_InvalidCursor_ReturnsBadRequest(){
+
+        client.get().uri("/api/debts?after=not-a-cursor")
+              .exchange()
+              .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void getDebt_DebtDoesNotExist_ReturnsNotFound(){
+
+        when(reactiveDebtService.getDebt(1L)).thenReturn(Mono.error(new DebtNotFoundException()));
+
+        client.get().uri("/api/debts/{id}", 1L)
+              .exchange()
+              .expectStatus().isNotFound()
+              .expectBody()
+              .jsonPath("$.errors[0]").isEqualTo("Debt not found");
+    }
+
+    @Test
+    void getDebt_DebtExists_ReturnsOk(){
+
+        DebtResponse debt = new DebtResponse();
+        debt.setId(1L);
+        debt.setCreditorName("Pedro");
+
+        when(reactiveDebtService.getDebt(1L)).thenReturn(Mono.just(debt));
+
+        client.get().uri("/api/debts/{id}", 1L)
+              .exchange()
+              .expectStatus().isOk()
+              .expectBody()
+              .jsonPath("$.creditorName").isEqualTo("Pedro");
+    }
+}
@@ -0,0 +1,90 @@
+package com.celcoin.credit.debts.controller;
+
+import com.celcoin.credit.debts.configuration.StatementBudgetInterceptor;
+import com.celcoin.credit.debts.entity.Debt;
+import com.celcoin.credit.debts.service.DebtService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Holds the payment endpoint to its budget in the default atomic mode, which needs PostgreSQL for its update ...
+ * returning. With an Idempotency-Key a payment reads the key, the terms of the debt and the next installment, marks it
+ * paid, decrements the debt, may fetch a block of installment ids and inserts the installment and the key: 8
+ * statements when no concurrent payment makes it claim another installment. Skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = {
+        "spring.datasource.hikari.schema=bu_credit_schema",
+        "bu-credit.interest-rate=5",
+        "bu-credit.payment.mode=atomic",
+        "bu-credit.debt-cache.enabled=false",
+        "bu-credit.overdue-sweep.enabled=false"
+})
+@AutoConfigureMockMvc
+public class StatementBudgetPostgresTest {
+
+    private static final int BUDGET = 8;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:13.1-alpine");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DebtService debtService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void payInstallment_AtomicMode_StaysWithinBudget() throws Exception {
+
+        Debt debt = new Debt();
+        debt.setCreditorName("Creditor");
+        debt.setTotalValue(BigDecimal.valueOf(600));
+        debt.setNumberOfInstallments(3);
+        debt.setDueDate(LocalDate.now().plusYears(1));
+        Long debtId = debtService.registerDebt(debt).getId();
+
+        // The first payment also fetches the first block of installment ids
+        mockMvc.perform(post("/api/debts/{debtId}/installments", debtId)
+                       .header(DebtController.IDEMPOTENCY_KEY_HEADER, "budget-1")
+                       .contentType(MediaType.APPLICATION_JSON)
+                       .content("{\"value\":200}"))
+               .andExpect(status().isCreated());
+        mockMvc.perform(post("/api/debts/{debtId}/installments", debtId)
+                       .contentType(MediaType.APPLICATION_JSON)
+                       .content("{\"value\":200}"))
+               .andExpect(status().isCreated());
+
+        assertTrue(meterRegistry.get(StatementBudgetInterceptor.STATEMENTS)
+                                .tag("method", "POST")
+                                .tag("uri", "/api/debts/{debtId}/installments")
+                                .summary()
+                                .max() <= BUDGET);
+        assertEquals(0.0, meterRegistry.get(StatementBudgetInterceptor.OVER_BUDGET)
+                                       .tag("method", "POST")
+                                       .tag("uri", "/api/debts/{debtId}/installments")
+                                       .counter()
+                                       .count());
+    }
+}
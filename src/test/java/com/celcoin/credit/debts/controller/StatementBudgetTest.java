@@ -0,0 +1,176 @@
+package com.celcoin.credit.debts.controller;
+
+import com.celcoin.credit.debts.configuration.StatementBudgetInterceptor;
+import com.celcoin.credit.debts.entity.Debt;
+import com.celcoin.credit.debts.entity.Installment;
+import com.celcoin.credit.debts.service.DebtService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:budget;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.schema=PUBLIC",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true",
+        "bu-credit.interest-rate=5",
+        // H2 has no update ... returning, the atomic payment is held to its budget by StatementBudgetPostgresTest
+        "bu-credit.payment.mode=entity",
+        "bu-credit.debt-cache.enabled=false",
+        "bu-credit.overdue-sweep.enabled=false",
+        "bu-credit.statement-budget.count-rows=true"
+})
+@AutoConfigureMockMvc
+public class StatementBudgetTest {
+
+    private static final int DEBTS = 600;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DebtService debtService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private static Long debtId;
+
+    @BeforeEach
+    void setup(){
+
+        if(debtId != null){
+            return;
+        }
+
+        // Half of the debts with an installment, so pages load installments too
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for(int i = 0; i < DEBTS; i++){
+                Debt debt = new Debt();
+                debt.setCreditorName("Creditor " + i);
+                debt.setTotalValue(BigDecimal.valueOf(600));
+                debt.setNumberOfInstallments(3);
+                debt.setDueDate(LocalDate.now().plusYears(1));
+                debtId = debtService.registerDebt(debt).getId();
+
+                if(i % 2 == 0){
+                    Installment installment = new Installment();
+                    installment.setValue(BigDecimal.valueOf(200));
+                    debtService.payInstallment(debtId, installment);
+                }
+            }
+        });
+    }
+
+    @Test
+    void getDebts_AnyPageSize_StaysWithinBudget() throws Exception {
+
+        for(int limit : new int[]{ 1, 50, 500 }){
+            mockMvc.perform(get("/api/debts").param("limit", String.valueOf(limit))).andExpect(status().isOk());
+
+            assertTrue(maxStatements("GET", "/api/debts") <= 3, "statements of a page of " + limit);
+        }
+
+        mockMvc.perform(get("/api/debts").param("limit", "500").param("fields", "balanceDue").param("include", "installments"))
+               .andExpect(status().isOk());
+        assertTrue(maxStatements("GET", "/api/debts") <= 3, "statements of a projected page");
+
+        assertTrue(rows("GET", "/api/debts") >= 500);
+        assertEquals(0.0, overBudget("GET", "/api/debts"));
+    }
+
+    @Test
+    void writesAndLookups_StayWithinBudget() throws Exception {
+
+        mockMvc.perform(get("/api/debts/{id}", debtId)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/debts/summary")).andExpect(status().isOk());
+        mockMvc.perform(post("/api/debts")
+                       .contentType(MediaType.APPLICATION_JSON)
+                       .content("{\"creditorName\":\"Pedro\",\"totalValue\":600,\"numberOfInstallments\":3," +
+                                "\"dueDate\":\"2030-04-25\"}"))
+               .andExpect(status().isCreated());
+        mockMvc.perform(post("/api/debts/{debtId}/installments", debtId)
+                       .contentType(MediaType.APPLICATION_JSON)
+                       .content("{\"value\":200}"))
+               .andExpect(status().isCreated());
+        mockMvc.perform(post("/api/debts/{debtId}/installments", debtId - 1)
+                       .header(DebtController.IDEMPOTENCY_KEY_HEADER, "budget-1")
+                       .contentType(MediaType.APPLICATION_JSON)
+                       .content("{\"value\":200}"))
+               .andExpect(status().isCreated());
+
+        assertEquals(0.0, overBudget("GET", "/api/debts/{id}"));
+        assertEquals(0.0, overBudget("GET", "/api/debts/summary"));
+        assertEquals(0.0, overBudget("POST", "/api/debts"));
+        assertEquals(0.0, overBudget("POST", "/api/debts/{debtId}/installments"));
+    }
+
+    @Test
+    void getDebt_UnchangedSinceETag_ReadsOnlyItsVersion() throws Exception {
+
+        String eTag = mockMvc.perform(get("/api/debts/{id}", debtId))
+                             .andExpect(status().isOk())
+                             .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        double statementsBefore = totalStatements("GET", "/api/debts/{id}");
+
+        mockMvc.perform(get("/api/debts/{id}", debtId).header(HttpHeaders.IF_NONE_MATCH, eTag))
+               .andExpect(status().isNotModified());
+
+        assertEquals(1.0, totalStatements("GET", "/api/debts/{id}") - statementsBefore);
+    }
+
+    private double totalStatements(String method, String uri){
+        return meterRegistry.get(StatementBudgetInterceptor.STATEMENTS)
+                            .tag("method", method)
+                            .tag("uri", uri)
+                            .summary()
+                            .totalAmount();
+    }
+
+    private double maxStatements(String method, String uri){
+        return meterRegistry.get(StatementBudgetInterceptor.STATEMENTS)
+                            .tag("method", method)
+                            .tag("uri", uri)
+                            .summary()
+                            .max();
+    }
+
+    private double rows(String method, String uri){
+        return meterRegistry.get(StatementBudgetInterceptor.ROWS)
+                            .tag("method", method)
+                            .tag("uri", uri)
+                            .summary()
+                            .max();
+    }
+
+    private double overBudget(String method, String uri){
+        return meterRegistry.get(StatementBudgetInterceptor.OVER_BUDGET)
+                            .tag("method", method)
+                            .tag("uri", uri)
+                            .counter()
+                            .count();
+    }
+}
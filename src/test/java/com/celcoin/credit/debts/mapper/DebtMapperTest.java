@@ -0,0 +1,91 @@
+package com.celcoin.credit.debts.mapper;
+
+import com.celcoin.credit.debts.entity.Debt;
+import com.celcoin.credit.debts.entity.Installment;
+import com.celcoin.credit.debts.valueobject.DebtResponse;
+import com.celcoin.credit.debts.valueobject.DebtStatus;
+import com.celcoin.credit.debts.valueobject.PayInstallmentRequest;
+import com.celcoin.credit.debts.valueobject.RegisterDebtRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DebtMapperTest {
+
+    private final ModelMapper modelMapper = new ModelMapper();
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void toDebtResponse_WhenCalled_MatchesModelMapper() throws Exception {
+
+        Debt debt = new Debt();
+        debt.setId(1L);
+        debt.setCreditorName("Pedro");
+        debt.setTotalValue(BigDecimal.valueOf(600));
+        debt.setNumberOfInstallments(3);
+        debt.setDueDate(LocalDate.of(2030, 4, 25));
+        debt.setBalanceDue(BigDecimal.valueOf(400));
+        debt.setStatus(DebtStatus.PARTIALLY_PAID);
+        debt.setCreatedAt(LocalDateTime.now());
+        debt.setUpdatedAt(LocalDateTime.now());
+
+        Installment installment = new Installment();
+        installment.setId(2L);
+        installment.setValue(BigDecimal.valueOf(200));
+        installment.setInterestRate(BigDecimal.ZERO);
+        installment.setDebt(debt);
+        installment.setCreatedAt(LocalDateTime.now());
+        debt.setInstallments(List.of(installment));
+
+        DebtResponse expected = modelMapper.map(debt, DebtResponse.class);
+        DebtResponse result = DebtMapper.toDebtResponse(debt);
+
+        assertEquals(objectMapper.writeValueAsString(expected), objectMapper.writeValueAsString(result));
+    }
+
+    @Test
+    void toDebtResponse_EmptyDebt_MatchesModelMapper() throws Exception {
+
+        DebtResponse expected = modelMapper.map(new Debt(), DebtResponse.class);
+        DebtResponse result = DebtMapper.toDebtResponse(new Debt());
+
+        assertEquals(objectMapper.writeValueAsString(expected), objectMapper.writeValueAsString(result));
+    }
+
+    @Test
+    void toDebt_WhenCalled_CopiesRequest(){
+
+        var request = new RegisterDebtRequest();
+        request.setCreditorName("Pedro");
+        request.setTotalValue(BigDecimal.valueOf(600));
+        request.setNumberOfInstallments(3);
+        request.setDueDate(LocalDate.of(2024, 5, 15));
+
+        Debt result = DebtMapper.toDebt(request);
+
+        assertEquals(request.getCreditorName(), result.getCreditorName());
+        assertEquals(request.getTotalValue(), result.getTotalValue());
+        assertEquals(request.getNumberOfInstallments(), result.getNumberOfInstallments());
+        assertEquals(request.getDueDate(), result.getDueDate());
+        assertNull(result.getId());
+    }
+
+    @Test
+    void toInstallment_WhenCalled_CopiesValue(){
+
+        var request = new PayInstallmentRequest();
+        request.setValue(BigDecimal.valueOf(200));
+
+        Installment result = DebtMapper.toInstallment(request);
+
+        assertEquals(request.getValue(), result.getValue());
+        assertNull(result.getId());
+    }
+}
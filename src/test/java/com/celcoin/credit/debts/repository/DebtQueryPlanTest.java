@@ -0,0 +1,346 @@
+package com.celcoin.credit.debts.repository;
+
+import com.celcoin.credit.debts.service.DebtMetrics;
+import com.celcoin.credit.debts.service.DebtService;
+import com.celcoin.credit.debts.valueobject.DebtCursor;
+import com.celcoin.credit.debts.valueobject.DebtField;
+import com.celcoin.credit.debts.valueobject.DebtFilter;
+import com.celcoin.credit.debts.valueobject.DebtSort;
+import com.celcoin.credit.debts.valueobject.DebtStatus;
+import com.celcoin.credit.debts.valueobject.NameMatch;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Named;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Explains the statements Hibernate generates for GET /api/debts and the other debt reads over a seeded table, on the
+ * schema built by the Flyway migrations, and fails when any of them falls back to a sequential scan. The statements
+ * are captured from the DataSource while DebtService runs, with their parameters, so a change to the specifications
+ * or the sort orders is explained as it is sent. Skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(properties = {
+        "bu-credit.interest-rate=5",
+        "spring.datasource.hikari.schema=bu_credit_schema",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({DebtService.class, DebtMetrics.class, SimpleMeterRegistry.class})
+public class DebtQueryPlanTest {
+
+    private static final int DEBTS = 200_000;
+    private static final int PAGE_SIZE = 50;
+
+    private static final LocalDate DUE_DATE = LocalDate.of(2025, 6, 1);
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 3, 1, 0, 0);
+    private static final Long CURSOR_ID = 100_000L;
+
+    private static final StatementCapture CAPTURE = new StatementCapture();
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:13.1-alpine");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DebtService debtService;
+
+    @Autowired
+    private DebtRepository debtRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TestConfiguration
+    static class StatementCaptureConfiguration {
+
+        @Bean
+        static BeanPostProcessor statementCaptureDataSourcePostProcessor(){
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName){
+                    return bean instanceof DataSource dataSource
+                           ? ProxyDataSourceBuilder.create(beanName, dataSource).listener(CAPTURE).build()
+                           : bean;
+                }
+            };
+        }
+    }
+
+    @BeforeAll
+    static void seed(@Autowired JdbcTemplate jdbcTemplate){
+
+        jdbcTemplate.update("insert into debts " +
+                            "(creditor_name, total_value, number_of_installments, due_date, balance_due, status_id, created_at, updated_at) " +
+                            "select 'Creditor ' || (n % 1000), 1000, 10, date '2024-01-01' + (n % 1095), n % 1000, 1 + n % 3, " +
+                            "timestamp '2024-01-01' + n * interval '1 minute', now() " +
+                            "from generate_series(1, ?) n", DEBTS);
+        jdbcTemplate.update("insert into installments (value, interest_rate, debt_id, created_at) " +
+                            "select 100, 0, d.id, now() from debts d cross join generate_series(1, 2)");
+        jdbcTemplate.execute("analyze debts");
+        jdbcTemplate.execute("analyze installments");
+    }
+
+    /**
+     * Every combination of the equality filters, on the first page and after a cursor.
+     */
+    @ParameterizedTest
+    @MethodSource("filterCombinations")
+    void getDebts_FilterCombination_UsesIndex(DebtFilter filter, DebtCursor after){
+
+        assertPagesUseIndexes(filter, DebtSort.DUE_DATE, after);
+    }
+
+    static Stream<Arguments> filterCombinations(){
+
+        List<Named<DebtFilter>> filters = new ArrayList<>();
+        for(int combination = 0; combination < 8; combination++){
+            boolean creditorName = (combination & 1) != 0;
+            boolean dueDate = (combination & 2) != 0;
+            boolean statusId = (combination & 4) != 0;
+
+            filters.add(filter("creditorName " + creditorName + ", dueDate " + dueDate + ", statusId " + statusId,
+                               filter -> {
+                                   if(creditorName){
+                                       filter.setCreditorName("Creditor 42");
+                                   }
+                                   if(dueDate){
+                                       filter.setDueDate(DUE_DATE);
+                                   }
+                                   if(statusId){
+                                       filter.setStatusId(DebtStatus.PARTIALLY_PAID.getId());
+                                   }
+                               }));
+        }
+
+        return onFirstPageAndAfterCursor(filters, DebtSort.DUE_DATE);
+    }
+
+    @ParameterizedTest
+    @MethodSource("creditorNameMatches")
+    void getDebts_CreditorNameMatch_UsesIndex(DebtFilter filter, DebtCursor after){
+
+        assertPagesUseIndexes(filter, DebtSort.DUE_DATE, after);
+    }
+
+    static Stream<Arguments> creditorNameMatches(){
+
+        return onFirstPageAndAfterCursor(List.of(
+                filter("IGNORE_CASE", filter -> nameMatch(filter, "CREDITOR 42", NameMatch.IGNORE_CASE)),
+                filter("PREFIX", filter -> nameMatch(filter, "creditor 421", NameMatch.PREFIX)),
+                filter("CONTAINS", filter -> nameMatch(filter, "tor 421", NameMatch.CONTAINS)),
+                filter("CONTAINS and statusId", filter -> {
+                    nameMatch(filter, "tor 421", NameMatch.CONTAINS);
+                    filter.setStatusId(DebtStatus.PARTIALLY_PAID.getId());
+                })), DebtSort.DUE_DATE);
+    }
+
+    /**
+     * Every sort order of DebtSort with every range filter, on the first page and after a cursor.
+     */
+    @ParameterizedTest
+    @MethodSource("sortsAndRangeFilters")
+    void getDebts_SortAndRangeFilter_UsesIndex(DebtFilter filter, DebtSort sort, DebtCursor after){
+
+        assertPagesUseIndexes(filter, sort, after);
+    }
+
+    static Stream<Arguments> sortsAndRangeFilters(){
+
+        List<Named<DebtFilter>> filters = List.of(
+                filter("no filter", filter -> {}),
+                filter("dueDate week", filter -> {
+                    filter.setDueDateFrom(DUE_DATE);
+                    filter.setDueDateTo(DUE_DATE.plusDays(6));
+                }),
+                filter("dueDateFrom", filter -> filter.setDueDateFrom(DUE_DATE)),
+                filter("balanceDue range", filter -> {
+                    filter.setBalanceDueMin(BigDecimal.valueOf(100));
+                    filter.setBalanceDueMax(BigDecimal.valueOf(110));
+                }),
+                filter("balanceDueMax", filter -> filter.setBalanceDueMax(BigDecimal.TEN)),
+                filter("createdAfter", filter -> filter.setCreatedAfter(LocalDateTime.of(2024, 4, 1, 0, 0))),
+                filter("statusId and dueDate week", filter -> {
+                    filter.setStatusId(DebtStatus.PARTIALLY_PAID.getId());
+                    filter.setDueDateFrom(DUE_DATE);
+                    filter.setDueDateTo(DUE_DATE.plusDays(6));
+                }),
+                filter("creditorName and balanceDueMin", filter -> {
+                    filter.setCreditorName("Creditor 42");
+                    filter.setBalanceDueMin(BigDecimal.valueOf(500));
+                }));
+
+        return Stream.of(DebtSort.values())
+                     .flatMap(sort -> onFirstPageAndAfterCursor(filters, sort)
+                             .map(arguments -> Arguments.of(arguments.get()[0], sort, arguments.get()[1])));
+    }
+
+    @Test
+    void getDebt_WithInstallments_UsesIndex(){
+
+        Long id = jdbcTemplate.queryForObject("select min(id) + 100 from debts", Long.class);
+
+        assertStatementsUseIndexes(() -> debtService.getDebt(id));
+        assertStatementsUseIndexes(() -> debtService.getDebtVersion(id));
+    }
+
+    @Test
+    void overdueSweepQuery_FromStartAndFromCheckpoint_UsesIndex(){
+
+        LocalDate today = LocalDate.of(2026, 1, 1);
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        // Each walk starts from the first debt, an interrupted one resumes from its checkpoint
+        assertStatementsUseIndexes(() -> transaction.executeWithoutResult(status -> debtRepository.lockOverdueCandidates(
+                today, LocalDate.of(1900, 1, 1), 0L, DebtStatus.CREATED.getId(), DebtStatus.PARTIALLY_PAID.getId(), 500)));
+        assertStatementsUseIndexes(() -> transaction.executeWithoutResult(status -> debtRepository.lockOverdueCandidates(
+                today, DUE_DATE, CURSOR_ID, DebtStatus.CREATED.getId(), DebtStatus.PARTIALLY_PAID.getId(), 500)));
+    }
+
+    /**
+     * The whole debts and the projection of a page, with its installments.
+     */
+    private void assertPagesUseIndexes(DebtFilter filter, DebtSort sort, DebtCursor after){
+
+        assertStatementsUseIndexes(() -> debtService.getDebts(filter, sort, after, PAGE_SIZE));
+        assertStatementsUseIndexes(() -> debtService.getDebtResponses(filter, sort, after, PAGE_SIZE,
+                EnumSet.of(DebtField.ID, DebtField.BALANCE_DUE, DebtField.UPDATED_AT, DebtField.INSTALLMENTS)));
+    }
+
+    private void assertStatementsUseIndexes(Runnable read){
+
+        List<CapturedStatement> statements = CAPTURE.capture(read);
+        assertFalse(statements.isEmpty(), "no statement was captured");
+
+        for(CapturedStatement statement : statements){
+            List<String> plan = jdbcTemplate.query("explain " + statement.sql(),
+                                                   statement::bind,
+                                                   (rs, row) -> rs.getString(1));
+
+            assertFalse(String.join("\n", plan).contains("Seq Scan"),
+                        () -> statement.sql() + "\n" + String.join("\n", plan));
+        }
+    }
+
+    private static Stream<Arguments> onFirstPageAndAfterCursor(List<Named<DebtFilter>> filters, DebtSort sort){
+
+        DebtCursor after = new DebtCursor(sort, cursorKey(sort), CURSOR_ID);
+
+        return filters.stream()
+                      .flatMap(filter -> Stream.of(Arguments.of(filter, null), Arguments.of(filter, after)));
+    }
+
+    private static Comparable<?> cursorKey(DebtSort sort){
+        return switch(sort){
+            case DUE_DATE, DUE_DATE_DESC -> DUE_DATE;
+            case CREATED_AT, CREATED_AT_DESC -> CREATED_AT;
+            case BALANCE_DUE, BALANCE_DUE_DESC -> BigDecimal.valueOf(500);
+        };
+    }
+
+    private static Named<DebtFilter> filter(String name, Consumer<DebtFilter> setup){
+
+        DebtFilter filter = new DebtFilter();
+        setup.accept(filter);
+
+        return Named.of(name, filter);
+    }
+
+    private static void nameMatch(DebtFilter filter, String creditorName, NameMatch match){
+        filter.setCreditorName(creditorName);
+        filter.setCreditorNameMatch(match);
+    }
+
+    private record CapturedStatement(String sql, List<ParameterSetOperation> parameters) {
+
+        void bind(PreparedStatement statement){
+            for(ParameterSetOperation parameter : parameters){
+                try{
+                    parameter.getMethod().invoke(statement, parameter.getArgs());
+                }catch(IllegalAccessException | InvocationTargetException e){
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Keeps the queries sent while a read runs, with the parameters they were executed with.
+     */
+    private static class StatementCapture implements QueryExecutionListener {
+
+        private List<CapturedStatement> statements;
+
+        synchronized List<CapturedStatement> capture(Runnable read){
+
+            statements = new ArrayList<>();
+            try{
+                read.run();
+                return statements;
+            }finally{
+                statements = null;
+            }
+        }
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList){
+        }
+
+        @Override
+        public synchronized void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList){
+
+            if(statements == null){
+                return;
+            }
+            for(QueryInfo query : queryInfoList){
+                List<ParameterSetOperation> parameters = query.getParametersList().isEmpty()
+                                                         ? List.of()
+                                                         : List.copyOf(query.getParametersList().get(0));
+                statements.add(new CapturedStatement(query.getQuery(), parameters));
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.celcoin.credit.debts.service;
+
+import com.celcoin.credit.debts.entity.Debt;
+import com.celcoin.credit.debts.repository.DebtRepository;
+import com.celcoin.credit.debts.repository.InstallmentRepository;
+import com.celcoin.credit.debts.repository.InstallmentScheduleRepository;
+import com.celcoin.credit.debts.valueobject.BulkRegistrationResult;
+import com.celcoin.credit.debts.valueobject.DebtStatus;
+import com.celcoin.credit.debts.valueobject.PaymentMode;
+import com.celcoin.credit.debts.valueobject.RegisterDebtRequest;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DebtBulkRegistrationServiceTest {
+
+    private static final String VALID = "{\"creditorName\":\"Pedro\",\"totalValue\":600,\"numberOfInstallments\":3,\"dueDate\":\"2030-04-25\"}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private DebtBulkRegistrationService debtBulkRegistrationService;
+
+    @Mock
+    private DebtRepository debtRepository;
+
+    @Mock
+    private InstallmentRepository installmentRepository;
+
+    @Mock
+    private InstallmentScheduleRepository installmentScheduleRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setup(){
+        DebtService debtService = new DebtService(debtRepository, installmentRepository, installmentScheduleRepository,
+                                                  event -> {}, new DebtMetrics(new SimpleMeterRegistry()),
+                                                  BigDecimal.valueOf(5), PaymentMode.ENTITY);
+        this.debtBulkRegistrationService = new DebtBulkRegistrationService(debtService,
+                                                                           debtRepository,
+                                                                           installmentScheduleRepository,
+                                                                           entityManager,
+                                                                           Validation.buildDefaultValidatorFactory().getValidator(),
+                                                                           transactionManager,
+                                                                           2,
+                                                                           10);
+    }
+
+    @Test
+    void registerDebts_NdjsonStream_SavesValidDebtsInChunks() throws Exception {
+
+        when(entityManager.unwrap(Session.class)).thenReturn(mock(Session.class));
+        List<List<Debt>> chunks = new ArrayList<>();
+        when(debtRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            chunks.add(new ArrayList<>(invocation.getArgument(0)));
+            return invocation.getArgument(0);
+        });
+        List<Integer> schedules = new ArrayList<>();
+        when(installmentScheduleRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            schedules.add(((List<?>) invocation.getArgument(0)).size());
+            return invocation.getArgument(0);
+        });
+
+        BulkRegistrationResult result = debtBulkRegistrationService.registerDebts(read(VALID + "\n" + VALID + "\n" + VALID + "\n"));
+
+        assertTrue(result.isCompleted());
+        assertEquals(3, result.getRegistered());
+        assertEquals(0, result.getRejected());
+        assertEquals(List.of(2, 1), chunks.stream().map(List::size).toList());
+
+        Debt debt = chunks.get(0).get(0);
+        assertEquals(DebtStatus.CREATED, debt.getStatus());
+        assertEquals(debt.getTotalValue(), debt.getBalanceDue());
+        assertNotNull(debt.getCreatedAt());
+        assertNotNull(debt.getUpdatedAt());
+        assertEquals(List.of(6, 3), schedules);
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void registerDebts_JsonArrayWithInvalidDebts_RejectsOnlyInvalidDebts() throws Exception {
+
+        when(entityManager.unwrap(Session.class)).thenReturn(mock(Session.class));
+        List<Debt> saved = new ArrayList<>();
+        when(debtRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            saved.addAll(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+
+        String json = "[" + VALID + ", {\"creditorName\":\"Pedro\"}, {\"totalValue\":\"abc\"}, " + VALID + "]";
+        BulkRegistrationResult result = debtBulkRegistrationService.registerDebts(read(json));
+
+        assertTrue(result.isCompleted());
+        assertEquals(2, result.getRegistered());
+        assertEquals(2, result.getRejected());
+        assertEquals(2, saved.size());
+        assertTrue(result.getErrors().stream().anyMatch(error -> error.startsWith("debts[1].totalValue")));
+        assertTrue(result.getErrors().stream().anyMatch(error -> error.startsWith("debts[2]")));
+    }
+
+    @Test
+    void registerDebts_MalformedJson_StopsAndKeepsDebtsReadBefore() throws Exception {
+
+        when(entityManager.unwrap(Session.class)).thenReturn(mock(Session.class));
+
+        BulkRegistrationResult result = debtBulkRegistrationService.registerDebts(read(VALID + "\n{\"creditorName\": \n"));
+
+        assertFalse(result.isCompleted());
+        assertEquals(1, result.getRegistered());
+        assertEquals(1, result.getErrors().size());
+    }
+
+    private MappingIterator<RegisterDebtRequest> read(String content) throws Exception {
+        return objectMapper.readerFor(RegisterDebtRequest.class).readValues(content);
+    }
+}
@@ -0,0 +1,147 @@
+package com.celcoin.credit.debts.service;
+
+import com.celcoin.credit.debts.entity.Debt;
+import com.celcoin.credit.debts.entity.Installment;
+import com.celcoin.credit.debts.repository.DebtExportRepository;
+import com.celcoin.credit.debts.valueobject.DebtFilter;
+import com.celcoin.credit.debts.valueobject.DebtResponse;
+import com.celcoin.credit.debts.valueobject.DebtStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true"
+})
+public class DebtExportServiceTest {
+
+    private static final LocalDate DUE_DATE = LocalDate.of(2030, 4, 25);
+
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+                                                        .addModule(new JavaTimeModule())
+                                                        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                                                        .build();
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private DebtExportService debtExportService;
+
+    @BeforeEach
+    void setup(){
+        // A fetch size smaller than the rows of one debt, so its installments span several fetches
+        this.debtExportService = new DebtExportService(new DebtExportRepository(dataSource, 1),
+                                                       objectMapper,
+                                                       transactionManager);
+    }
+
+    @Test
+    void exportNdjson_DebtsWithAndWithoutInstallments_WritesOneDebtPerLineInDueDateOrder() throws Exception {
+
+        Debt later = save("Maria", DebtStatus.CREATED, DUE_DATE.plusDays(1));
+        Debt paying = save("Pedro", DebtStatus.PARTIALLY_PAID, DUE_DATE);
+        pay(paying);
+        pay(paying);
+        entityManager.flush();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        debtExportService.exportNdjson(new DebtFilter(), out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+
+        DebtResponse first = objectMapper.readValue(lines[0], DebtResponse.class);
+        assertEquals(paying.getId(), first.getId());
+        assertEquals(DebtStatus.PARTIALLY_PAID.getId(), first.getStatusId());
+        assertEquals(DUE_DATE, first.getDueDate());
+        assertEquals(2, first.getInstallments().size());
+        assertEquals(0, BigDecimal.valueOf(200).compareTo(first.getInstallments().get(1).getValue()));
+
+        DebtResponse second = objectMapper.readValue(lines[1], DebtResponse.class);
+        assertEquals(later.getId(), second.getId());
+        assertEquals(List.of(), second.getInstallments());
+    }
+
+    @Test
+    void exportCsv_FilteredByStatus_WritesOneLinePerInstallmentWithQuotedText() throws Exception {
+
+        Debt paying = save("Silva, \"Pedro\"", DebtStatus.PARTIALLY_PAID, DUE_DATE);
+        pay(paying);
+        pay(paying);
+        save("Maria", DebtStatus.CREATED, DUE_DATE);
+        entityManager.flush();
+
+        DebtFilter filter = new DebtFilter();
+        filter.setStatusId(DebtStatus.PARTIALLY_PAID.getId());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        debtExportService.exportCsv(filter, out);
+
+        List<String> lines = new ArrayList<>(List.of(out.toString(StandardCharsets.UTF_8).split("\n")));
+        assertEquals(DebtExportService.CSV_HEADER, lines.remove(0));
+        assertEquals(2, lines.size());
+        assertEquals(paying.getId() + ",\"Silva, \"\"Pedro\"\"\",600.00,600.00,3,2030-04-25,2,",
+                     lines.get(0).substring(0, lines.get(0).indexOf(",2,") + 3));
+        assertEquals(13, lines.get(1).split(",", -1).length - 1);
+    }
+
+    @Test
+    void exportCsv_NoDebts_WritesOnlyHeader() throws Exception {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        debtExportService.exportCsv(new DebtFilter(), out);
+
+        assertEquals(DebtExportService.CSV_HEADER + "\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    private Debt save(String creditorName, DebtStatus status, LocalDate dueDate){
+
+        Debt debt = new Debt();
+        debt.setCreditorName(creditorName);
+        debt.setTotalValue(BigDecimal.valueOf(600));
+        debt.setBalanceDue(BigDecimal.valueOf(600));
+        debt.setNumberOfInstallments(3);
+        debt.setStatus(status);
+        debt.setDueDate(dueDate);
+        debt.setCreatedAt(LocalDateTime.now());
+        debt.setUpdatedAt(LocalDateTime.now());
+
+        return entityManager.persist(debt);
+    }
+
+    private void pay(Debt debt){
+
+        Installment installment = new Installment();
+        installment.setDebt(debt);
+        installment.setValue(BigDecimal.valueOf(200));
+        installment.setInterestRate(BigDecimal.ZERO);
+        installment.setCreatedAt(LocalDateTime.now());
+
+        entityManager.persist(installment);
+    }
+}
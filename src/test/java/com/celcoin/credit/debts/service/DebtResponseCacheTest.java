@@ -0,0 +1,70 @@
+package com.celcoin.credit.debts.service;
+
+import com.celcoin.credit.debts.entity.Debt;
+import com.celcoin.credit.debts.entity.Installment;
+import com.celcoin.credit.debts.valueobject.DebtStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = {
+        "bu-credit.interest-rate=5",
+        "bu-credit.payment.mode=entity",
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({DebtService.class, DebtResponseCache.class, DebtMetrics.class, SimpleMeterRegistry.class})
+public class DebtResponseCacheTest {
+
+    @Autowired
+    private DebtService debtService;
+
+    @Autowired
+    private DebtResponseCache debtResponseCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void getDebt_DebtPaid_KeepsCachedDebtUntilPaymentCommits(){
+
+        Debt debt = new Debt();
+        debt.setCreditorName("Creditor");
+        debt.setTotalValue(BigDecimal.valueOf(600));
+        debt.setNumberOfInstallments(3);
+        debt.setDueDate(LocalDate.now().plusYears(1));
+        Long debtId = debtService.registerDebt(debt).getId();
+
+        assertEquals(DebtStatus.CREATED.getId(), debtResponseCache.getDebt(debtId).getStatusId());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Installment installment = new Installment();
+            installment.setValue(BigDecimal.valueOf(200));
+            debtService.payInstallment(debtId, installment);
+
+            assertEquals(DebtStatus.CREATED.getId(), debtResponseCache.getDebt(debtId).getStatusId());
+        });
+
+        assertEquals(DebtStatus.PARTIALLY_PAID.getId(), debtResponseCache.getDebt(debtId).getStatusId());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", DebtResponseCache.CACHE_NAME)
+                                       .tag("result", "hit").functionCounter().count());
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("cache", DebtResponseCache.CACHE_NAME)
+                                       .tag("result", "miss").functionCounter().count());
+    }
+}
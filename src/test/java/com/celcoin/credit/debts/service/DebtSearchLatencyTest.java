@@ -0,0 +1,102 @@
+package com.celcoin.credit.debts.service;
+
+import com.celcoin.credit.debts.valueobject.DebtFilter;
+import com.celcoin.credit.debts.valueobject.DebtPage;
+import com.celcoin.credit.debts.valueobject.DebtSort;
+import com.celcoin.credit.debts.valueobject.NameMatch;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Times the first page of GET /api/debts filtered by creditor name in every match mode, over a few million debts on
+ * the schema built by the Flyway migrations. A mode without its index scans the whole table and takes seconds.
+ * Skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(properties = {
+        "bu-credit.interest-rate=5",
+        "spring.datasource.hikari.schema=bu_credit_schema",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({DebtService.class, DebtMetrics.class, SimpleMeterRegistry.class})
+public class DebtSearchLatencyTest {
+
+    private static final int DEBTS = 3_000_000;
+
+    // 30 debts per name
+    private static final int CREDITORS = 100_000;
+
+    private static final int WARMUP = 10;
+    private static final int RUNS = 50;
+    private static final Duration MAX_P95 = Duration.ofMillis(100);
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:13.1-alpine");
+
+    @Autowired
+    private DebtService debtService;
+
+    @BeforeAll
+    static void seed(@Autowired JdbcTemplate jdbcTemplate){
+
+        jdbcTemplate.update("insert into debts " +
+                            "(creditor_name, total_value, number_of_installments, due_date, balance_due, status_id, created_at, updated_at) " +
+                            "select 'Creditor ' || (n % ?), 1000, 10, date '2024-01-01' + (n % 1095), 1000, 1 + n % 3, now(), now() " +
+                            "from generate_series(1, ?) n", CREDITORS, DEBTS);
+        jdbcTemplate.execute("analyze debts");
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "EXACT, Creditor 4217, 30",
+            "IGNORE_CASE, CREDITOR 4217, 30",
+            "PREFIX, creditor 4217, 50",
+            "CONTAINS, TOR 4217, 50"
+    })
+    void getDebts_CreditorNameMatch_StaysUnderLatencyTarget(NameMatch match, String creditorName, int expected){
+
+        DebtFilter filter = new DebtFilter();
+        filter.setCreditorName(creditorName);
+        filter.setCreditorNameMatch(match);
+
+        for(int i = 0; i < WARMUP; i++){
+            debtService.getDebts(filter, DebtSort.DUE_DATE, null, 50);
+        }
+
+        long[] nanos = new long[RUNS];
+        for(int i = 0; i < RUNS; i++){
+            long start = System.nanoTime();
+            DebtPage page = debtService.getDebts(filter, DebtSort.DUE_DATE, null, 50);
+            nanos[i] = System.nanoTime() - start;
+
+            assertEquals(expected, page.getDebts().size());
+        }
+
+        Arrays.sort(nanos);
+        Duration p95 = Duration.ofNanos(nanos[(int) Math.ceil(RUNS * 0.95) - 1]);
+
+        assertTrue(p95.compareTo(MAX_P95) <= 0, () -> match + " p95 " + p95.toMillis() + "ms");
+    }
+}
@@ -0,0 +1,112 @@
+package com.celcoin.credit.debts.service;
+
+import com.celcoin.credit.debts.entity.Debt;
+import com.celcoin.credit.debts.entity.Installment;
+import com.celcoin.credit.debts.exception.DebtAlreadyPaidException;
+import com.celcoin.credit.debts.repository.DebtRepository;
+import com.celcoin.credit.debts.repository.InstallmentRepository;
+import com.celcoin.credit.debts.valueobject.DebtStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Fires parallel payments at a single debt on PostgreSQL, which is where the conditional update has to hold.
+ * Skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(properties = {
+        "bu-credit.interest-rate=5",
+        "bu-credit.payment.mode=atomic",
+        "spring.datasource.hikari.schema=bu_credit_schema",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({DebtService.class, DebtMetrics.class, SimpleMeterRegistry.class})
+public class DebtServiceConcurrencyTest {
+
+    private static final int INSTALLMENTS = 10;
+    private static final int PAYMENTS = 40;
+    private static final int THREADS = 16;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:13.1-alpine");
+
+    @Autowired
+    private DebtService debtService;
+
+    @Autowired
+    private DebtRepository debtRepository;
+
+    @Autowired
+    private InstallmentRepository installmentRepository;
+
+    @Test
+    void payInstallment_ParallelPaymentsOnSameDebt_LosesNoDecrement() throws Exception {
+
+        Debt debt = new Debt();
+        debt.setCreditorName("Creditor");
+        debt.setTotalValue(BigDecimal.valueOf(1000));
+        debt.setNumberOfInstallments(INSTALLMENTS);
+        debt.setDueDate(LocalDate.now().plusYears(1));
+        Long debtId = debtService.registerDebt(debt).getId();
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<Boolean>> payments = new ArrayList<>();
+
+        try{
+            for(int i = 0; i < PAYMENTS; i++){
+                payments.add(executor.submit(() -> {
+                    Installment installment = new Installment();
+                    installment.setValue(BigDecimal.valueOf(100));
+                    start.await();
+                    try{
+                        debtService.payInstallment(debtId, installment);
+                        return true;
+                    }catch(DebtAlreadyPaidException e){
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int paid = 0;
+            for(Future<Boolean> payment : payments){
+                if(payment.get()){
+                    paid++;
+                }
+            }
+
+            Debt result = debtRepository.findById(debtId).orElseThrow();
+            assertEquals(INSTALLMENTS, paid);
+            assertEquals(0, BigDecimal.ZERO.compareTo(result.getBalanceDue()));
+            assertEquals(DebtStatus.PAID, result.getStatus());
+            assertEquals(INSTALLMENTS, installmentRepository.count());
+        }finally{
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.celcoin.credit.debts.service;
+
+import com.celcoin.credit.debts.entity.Debt;
+import com.celcoin.credit.debts.entity.Installment;
+import com.celcoin.credit.debts.mapper.DebtMapper;
+import com.celcoin.credit.debts.valueobject.DebtField;
+import com.celcoin.credit.debts.valueobject.DebtFilter;
+import com.celcoin.credit.debts.valueobject.DebtPage;
+import com.celcoin.credit.debts.valueobject.DebtResponse;
+import com.celcoin.credit.debts.valueobject.DebtResponsePage;
+import com.celcoin.credit.debts.valueobject.DebtSort;
+import com.celcoin.credit.debts.valueobject.DebtStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@DataJpaTest(properties = {
+        "bu-credit.interest-rate=5",
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({DebtService.class, DebtMetrics.class, SimpleMeterRegistry.class})
+public class DebtServiceStatementCountTest {
+
+    private static final int INSTALLMENTS_PER_DEBT = 3;
+
+    @Autowired
+    private DebtService debtService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setup(){
+
+        for(int i = 0; i < 60; i++){
+            Debt debt = new Debt();
+            debt.setCreditorName("Creditor " + i);
+            debt.setTotalValue(BigDecimal.valueOf(600));
+            debt.setNumberOfInstallments(INSTALLMENTS_PER_DEBT * 2);
+            debt.setDueDate(LocalDate.of(2030, 1, 1).plusDays(i));
+            debt.setBalanceDue(BigDecimal.valueOf(300));
+            debt.setStatus(DebtStatus.PARTIALLY_PAID);
+            debt.setCreatedAt(LocalDateTime.now());
+            debt.setUpdatedAt(LocalDateTime.now());
+            debt.setInstallments(new ArrayList<>());
+            entityManager.persist(debt);
+
+            for(int j = 0; j < INSTALLMENTS_PER_DEBT; j++){
+                Installment installment = new Installment();
+                installment.setValue(BigDecimal.valueOf(100));
+                installment.setInterestRate(BigDecimal.ZERO);
+                installment.setDebt(debt);
+                installment.setCreatedAt(LocalDateTime.now());
+                entityManager.persist(installment);
+            }
+        }
+
+        entityManager.flush();
+    }
+
+    @Test
+    void getDebts_AnyPageSize_IssuesSameNumberOfStatements(){
+
+        long smallPage = countStatementsToMapPage(5);
+        long largePage = countStatementsToMapPage(50);
+
+        assertEquals(2, smallPage);
+        assertEquals(smallPage, largePage);
+    }
+
+    @Test
+    void getDebtResponses_FieldsWithoutInstallments_ReadsOnlyTheDebts(){
+
+        Statistics statistics = clearStatistics();
+
+        DebtResponsePage page = debtService.getDebtResponses(new DebtFilter(), DebtSort.DUE_DATE, null, 5,
+                                                             DebtField.parse("creditorName,balanceDue", null));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(5, page.getDebts().size());
+        assertNotNull(page.getNextCursor());
+
+        DebtResponse first = page.getDebts().get(0);
+        assertNotNull(first.getId());
+        assertEquals("Creditor 0", first.getCreditorName());
+        assertEquals(0, BigDecimal.valueOf(300).compareTo(first.getBalanceDue()));
+        assertNull(first.getDueDate());
+        assertNull(first.getStatusId());
+        assertNull(first.getInstallments());
+    }
+
+    @Test
+    void getDebtResponses_IncludeInstallments_ReadsThemInOneQuery(){
+
+        Statistics statistics = clearStatistics();
+
+        DebtResponsePage page = debtService.getDebtResponses(new DebtFilter(), DebtSort.DUE_DATE, null, 50,
+                                                             DebtField.parse("statusId", "installments"));
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        page.getDebts().forEach(response -> {
+            assertEquals(DebtStatus.PARTIALLY_PAID.getId(), response.getStatusId());
+            assertEquals(INSTALLMENTS_PER_DEBT, response.getInstallments().size());
+        });
+
+        DebtResponsePage last = debtService.getDebtResponses(new DebtFilter(), DebtSort.DUE_DATE, page.getNextCursor(), 50,
+                                                             DebtField.parse("statusId", null));
+        assertEquals(10, last.getDebts().size());
+        assertNull(last.getNextCursor());
+    }
+
+    private Statistics clearStatistics(){
+
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        return statistics;
+    }
+
+    private long countStatementsToMapPage(int limit){
+
+        Statistics statistics = clearStatistics();
+
+        DebtPage page = debtService.getDebts(new DebtFilter(), DebtSort.DUE_DATE, null, limit);
+        page.getDebts().forEach(debt -> {
+            DebtResponse response = DebtMapper.toDebtResponse(debt);
+            assertEquals(INSTALLMENTS_PER_DEBT, response.getInstallments().size());
+        });
+
+        assertEquals(limit, page.getDebts().size());
+
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,99 @@
+package com.celcoin.credit.debts.service;
+
+import com.celcoin.credit.debts.entity.Debt;
+import com.celcoin.credit.debts.repository.DebtRepository;
+import com.celcoin.credit.debts.valueobject.AgingBucketSummary;
+import com.celcoin.credit.debts.valueobject.DebtStatus;
+import com.celcoin.credit.debts.valueobject.DebtSummaryResponse;
+import com.celcoin.credit.debts.valueobject.StatusSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = {
+        "bu-credit.interest-rate=5",
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true"
+})
+@Import({DebtService.class, DebtMetrics.class, SimpleMeterRegistry.class})
+public class DebtServiceSummaryTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 30);
+
+    @Autowired
+    private DebtService debtService;
+
+    @Autowired
+    private DebtRepository debtRepository;
+
+    @Test
+    void getSummary_DebtsInSeveralStatusesAndAges_SumsPerGroup(){
+
+        save("Pedro", 300, 300, DebtStatus.CREATED, TODAY);
+        save("Pedro", 300, 100, DebtStatus.PARTIALLY_PAID, TODAY.minusDays(1));
+        save("Pedro", 300, 300, DebtStatus.CREATED, TODAY.minusDays(30));
+        save("Maria", 600, 600, DebtStatus.CREATED, TODAY.minusDays(31));
+        save("Maria", 600, 200, DebtStatus.PARTIALLY_PAID, TODAY.minusDays(91));
+        save("Maria", 600, 0, DebtStatus.PAID, TODAY.minusDays(200));
+
+        DebtSummaryResponse summary = debtService.getSummary(TODAY);
+
+        List<StatusSummary> statuses = summary.getStatuses();
+        assertEquals(3, statuses.size());
+        assertStatus(statuses.get(0), DebtStatus.CREATED, 3, 1200, 1200);
+        assertStatus(statuses.get(1), DebtStatus.PARTIALLY_PAID, 2, 900, 300);
+        assertStatus(statuses.get(2), DebtStatus.PAID, 1, 600, 0);
+
+        assertEquals(2, summary.getCreditors().size());
+        assertEquals("Maria", summary.getCreditors().get(0).getCreditorName());
+        assertEquals(3L, summary.getCreditors().get(0).getCount());
+        assertEquals(0, BigDecimal.valueOf(800).compareTo(summary.getCreditors().get(0).getBalanceDue()));
+        assertEquals("Pedro", summary.getCreditors().get(1).getCreditorName());
+        assertEquals(0, BigDecimal.valueOf(900).compareTo(summary.getCreditors().get(1).getTotalValue()));
+
+        // Due today is not overdue and paid debts are left out
+        List<AgingBucketSummary> aging = summary.getAging();
+        assertBucket(aging.get(0), "0-30", 2, 400);
+        assertBucket(aging.get(1), "31-60", 1, 600);
+        assertBucket(aging.get(2), "61-90", 0, 0);
+        assertBucket(aging.get(3), "90+", 1, 200);
+    }
+
+    private void save(String creditorName, int totalValue, int balanceDue, DebtStatus status, LocalDate dueDate){
+
+        Debt debt = new Debt();
+        debt.setCreditorName(creditorName);
+        debt.setTotalValue(BigDecimal.valueOf(totalValue));
+        debt.setBalanceDue(BigDecimal.valueOf(balanceDue));
+        debt.setNumberOfInstallments(3);
+        debt.setStatus(status);
+        debt.setDueDate(dueDate);
+        debt.setCreatedAt(LocalDateTime.now());
+        debt.setUpdatedAt(LocalDateTime.now());
+        debtRepository.save(debt);
+    }
+
+    private void assertStatus(StatusSummary summary, DebtStatus status, long count, int totalValue, int balanceDue){
+
+        assertEquals(status.getId(), summary.getStatusId());
+        assertEquals(count, summary.getCount());
+        assertEquals(0, BigDecimal.valueOf(totalValue).compareTo(summary.getTotalValue()));
+        assertEquals(0, BigDecimal.valueOf(balanceDue).compareTo(summary.getBalanceDue()));
+    }
+
+    private void assertBucket(AgingBucketSummary summary, String bucket, long count, int balanceDue){
+
+        assertEquals(bucket, summary.getBucket());
+        assertEquals(count, summary.getCount());
+        assertEquals(0, BigDecimal.valueOf(balanceDue).compareTo(summary.getBalanceDue()));
+    }
+}
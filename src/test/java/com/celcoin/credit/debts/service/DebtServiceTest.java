@@ -2,37 +2,52 @@ package com.celcoin.credit.debts.service;
 
 import com.celcoin.credit.debts.entity.Debt;
 import com.celcoin.credit.debts.entity.Installment;
-import com.celcoin.credit.debts.entity.Status;
+import com.celcoin.credit.debts.entity.ScheduledInstallment;
 import com.celcoin.credit.debts.exception.DebtAlreadyPaidException;
 import com.celcoin.credit.debts.exception.DebtNotFoundException;
 import com.celcoin.credit.debts.exception.DebtOverdueException;
 import com.celcoin.credit.debts.exception.IncorrectValueException;
 import com.celcoin.credit.debts.repository.DebtRepository;
 import com.celcoin.credit.debts.repository.InstallmentRepository;
+import com.celcoin.credit.debts.repository.InstallmentScheduleRepository;
+import com.celcoin.credit.debts.valueobject.DebtBalance;
+import com.celcoin.credit.debts.valueobject.DebtChangedEvent;
+import com.celcoin.credit.debts.valueobject.DebtFilter;
+import com.celcoin.credit.debts.valueobject.DebtPage;
+import com.celcoin.credit.debts.valueobject.DebtSort;
 import com.celcoin.credit.debts.valueobject.DebtStatus;
+import com.celcoin.credit.debts.valueobject.PaymentMode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.AdditionalAnswers.returnsFirstArg;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 public class DebtServiceTest {
 
     private DebtService debtService;
+    private SimpleMeterRegistry meterRegistry;
     private static final BigDecimal INTEREST_RATE = BigDecimal.valueOf(5);
 
     @Mock
@@ -41,23 +56,56 @@ public class DebtServiceTest {
     @Mock
     private InstallmentRepository installmentRepository;
 
+    @Mock
+    private InstallmentScheduleRepository installmentScheduleRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @BeforeEach
     void setup(){
+        this.meterRegistry = new SimpleMeterRegistry();
         this.debtService = new DebtService(this.debtRepository,
                                            this.installmentRepository,
-                                           INTEREST_RATE);
+                                           this.installmentScheduleRepository,
+                                           this.eventPublisher,
+                                           new DebtMetrics(this.meterRegistry),
+                                           INTEREST_RATE,
+                                           PaymentMode.ENTITY);
     }
 
     @Test
-    void getDebts_WhenCalled_ReturnsDebts(){
+    void getDebts_LastPage_ReturnsDebtsWithoutNextCursor(){
 
         List<Debt> debts = List.of(new Debt(), new Debt(), new Debt());
 
-        when(debtRepository.findAll(ArgumentMatchers.<Specification<Debt>>any())).thenReturn(debts);
+        when(debtRepository.findBy(ArgumentMatchers.<Specification<Debt>>any(), any())).thenReturn(debts);
+
+        DebtPage result = debtService.getDebts(new DebtFilter(), DebtSort.DUE_DATE, null, 3);
+
+        assertEquals(debts.size(), result.getDebts().size());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void getDebts_MoreDebtsThanLimit_ReturnsNextCursorAtLastDebt(){
+
+        List<Debt> debts = new ArrayList<>();
+        for(long id = 1; id <= 3; id++){
+            Debt debt = new Debt();
+            debt.setId(id);
+            debt.setDueDate(LocalDate.of(2024, 5, (int) id));
+            debts.add(debt);
+        }
+
+        when(debtRepository.findBy(ArgumentMatchers.<Specification<Debt>>any(), any())).thenReturn(debts);
 
-        List<Debt> result = debtService.getDebts(null, null, null);
+        DebtPage result = debtService.getDebts(new DebtFilter(), DebtSort.DUE_DATE, null, 2);
 
-        assertEquals(debts.size(), result.size());
+        assertEquals(2, result.getDebts().size());
+        assertNotNull(result.getNextCursor());
+        assertEquals(2L, result.getNextCursor().getId());
+        assertEquals(LocalDate.of(2024, 5, 2), result.getNextCursor().getDueDate());
     }
 
     @Test
@@ -65,7 +113,7 @@ public class DebtServiceTest {
 
         Long id = 1L;
 
-        when(debtRepository.findById(id)).thenReturn(Optional.empty());
+        when(debtRepository.findWithInstallmentsById(id)).thenReturn(Optional.empty());
 
         assertThrows(DebtNotFoundException.class, () -> debtService.getDebt(id));
     }
@@ -78,7 +126,7 @@ public class DebtServiceTest {
         Debt debt = new Debt();
         debt.setId(id);
 
-        when(debtRepository.findById(id)).thenReturn(Optional.of(debt));
+        when(debtRepository.findWithInstallmentsById(id)).thenReturn(Optional.of(debt));
 
         Debt result = debtService.getDebt(id);
 
@@ -104,6 +152,22 @@ public class DebtServiceTest {
         assertNotNull(result.getUpdatedAt());
     }
 
+    @Test
+    void registerDebt_DueDateInThePast_ReturnsOverdueDebt(){
+
+        Debt debt = new Debt();
+        debt.setCreditorName("Pedro");
+        debt.setTotalValue(BigDecimal.valueOf(600));
+        debt.setNumberOfInstallments(3);
+        debt.setDueDate(LocalDate.now().minusDays(1));
+
+        when(debtRepository.save(any(Debt.class))).thenAnswer(returnsFirstArg());
+
+        Debt result = debtService.registerDebt(debt);
+
+        assertEquals(DebtStatus.OVERDUE, result.getStatus());
+    }
+
     @Test
     void payInstallment_DebtDoesNotExist_ThrowsDebtNotFoundException(){
 
@@ -125,12 +189,9 @@ public class DebtServiceTest {
         Installment installment = new Installment();
         installment.setValue(BigDecimal.valueOf(200));
 
-        Status status = new Status();
-        status.setId(DebtStatus.PAID);
-
         Debt debt = new Debt();
         debt.setId(debtId);
-        debt.setStatus(status);
+        debt.setStatus(DebtStatus.PAID);
 
         when(debtRepository.findById(debtId)).thenReturn(Optional.of(debt));
 
@@ -145,17 +206,16 @@ public class DebtServiceTest {
         Installment installment = new Installment();
         installment.setValue(BigDecimal.valueOf(200));
 
-        Status status = new Status();
-        status.setId(DebtStatus.CREATED);
-
         Debt debt = new Debt();
         debt.setId(debtId);
-        debt.setStatus(status);
+        debt.setStatus(DebtStatus.CREATED);
         debt.setDueDate(LocalDate.of(2023,4, 25));
         debt.setNumberOfInstallments(3);
         debt.setTotalValue(BigDecimal.valueOf(600));
 
         when(debtRepository.findById(debtId)).thenReturn(Optional.of(debt));
+        when(installmentScheduleRepository.findFirstByDebtIdAndPaidAtIsNullOrderByNumber(debtId))
+                .thenReturn(Optional.of(scheduled(debt, 1)));
 
         assertThrows(DebtOverdueException.class, () -> debtService.payInstallment(debtId, installment));
     }
@@ -168,17 +228,16 @@ public class DebtServiceTest {
         Installment installment = new Installment();
         installment.setValue(BigDecimal.valueOf(150));
 
-        Status status = new Status();
-        status.setId(DebtStatus.CREATED);
-
         Debt debt = new Debt();
         debt.setId(debtId);
-        debt.setStatus(status);
+        debt.setStatus(DebtStatus.CREATED);
         debt.setDueDate(LocalDate.of(2030,4, 25));
         debt.setNumberOfInstallments(3);
         debt.setTotalValue(BigDecimal.valueOf(600));
 
         when(debtRepository.findById(debtId)).thenReturn(Optional.of(debt));
+        when(installmentScheduleRepository.findFirstByDebtIdAndPaidAtIsNullOrderByNumber(debtId))
+                .thenReturn(Optional.of(scheduled(debt, 1)));
 
         assertThrows(IncorrectValueException.class, () -> debtService.payInstallment(debtId, installment));
     }
@@ -191,18 +250,17 @@ public class DebtServiceTest {
         Installment installment = new Installment();
         installment.setValue(BigDecimal.valueOf(200));
 
-        Status status = new Status();
-        status.setId(DebtStatus.CREATED);
-
         Debt debt = new Debt();
         debt.setId(debtId);
-        debt.setStatus(status);
+        debt.setStatus(DebtStatus.CREATED);
         debt.setDueDate(LocalDate.of(2030,4, 25));
         debt.setNumberOfInstallments(3);
         debt.setTotalValue(BigDecimal.valueOf(600));
         debt.setBalanceDue(BigDecimal.valueOf(600));
 
         when(debtRepository.findById(debtId)).thenReturn(Optional.of(debt));
+        when(installmentScheduleRepository.findFirstByDebtIdAndPaidAtIsNullOrderByNumber(debtId))
+                .thenReturn(Optional.of(scheduled(debt, 1)));
         when(debtRepository.save(any(Debt.class))).thenAnswer(returnsFirstArg());
         when(installmentRepository.save(any(Installment.class))).thenAnswer(returnsFirstArg());
 
@@ -211,12 +269,40 @@ public class DebtServiceTest {
         assertNotNull(result.getDebt());
         assertEquals(BigDecimal.valueOf(400).setScale(2, RoundingMode.HALF_EVEN), result.getDebt().getBalanceDue());
         assertNotNull(result.getDebt().getStatus());
-        assertEquals(DebtStatus.PARTIALLY_PAID, result.getDebt().getStatus().getId());
+        assertEquals(DebtStatus.PARTIALLY_PAID, result.getDebt().getStatus());
         assertNotNull(result.getDebt().getUpdatedAt());
         assertNotNull(result.getInterestRate());
         assertNotNull(result.getCreatedAt());
     }
 
+    @Test
+    void payInstallment_OverdueBalanceDueNotZero_ReturnsStatusOverdue(){
+
+        Long debtId = 1L;
+
+        Installment installment = new Installment();
+        installment.setValue(BigDecimal.valueOf(210));
+
+        Debt debt = new Debt();
+        debt.setId(debtId);
+        debt.setStatus(DebtStatus.CREATED);
+        debt.setDueDate(LocalDate.of(2023,4, 25));
+        debt.setNumberOfInstallments(3);
+        debt.setTotalValue(BigDecimal.valueOf(600));
+        debt.setBalanceDue(BigDecimal.valueOf(600));
+
+        when(debtRepository.findById(debtId)).thenReturn(Optional.of(debt));
+        when(installmentScheduleRepository.findFirstByDebtIdAndPaidAtIsNullOrderByNumber(debtId))
+                .thenReturn(Optional.of(scheduled(debt, 1)));
+        when(debtRepository.save(any(Debt.class))).thenAnswer(returnsFirstArg());
+        when(installmentRepository.save(any(Installment.class))).thenAnswer(returnsFirstArg());
+
+        Installment result = debtService.payInstallment(debtId, installment);
+
+        assertEquals(BigDecimal.valueOf(400).setScale(2, RoundingMode.HALF_EVEN), result.getDebt().getBalanceDue());
+        assertEquals(DebtStatus.OVERDUE, result.getDebt().getStatus());
+    }
+
     @Test
     void payInstallment_BalanceDueZero_ReturnsStatusPaid(){
 
@@ -225,18 +311,17 @@ public class DebtServiceTest {
         Installment installment = new Installment();
         installment.setValue(BigDecimal.valueOf(200));
 
-        Status status = new Status();
-        status.setId(DebtStatus.PARTIALLY_PAID);
-
         Debt debt = new Debt();
         debt.setId(debtId);
-        debt.setStatus(status);
+        debt.setStatus(DebtStatus.PARTIALLY_PAID);
         debt.setDueDate(LocalDate.of(2030,4, 25));
         debt.setNumberOfInstallments(3);
         debt.setTotalValue(BigDecimal.valueOf(600));
         debt.setBalanceDue(BigDecimal.valueOf(200));
 
         when(debtRepository.findById(debtId)).thenReturn(Optional.of(debt));
+        when(installmentScheduleRepository.findFirstByDebtIdAndPaidAtIsNullOrderByNumber(debtId))
+                .thenReturn(Optional.of(scheduled(debt, 3)));
         when(debtRepository.save(any(Debt.class))).thenAnswer(returnsFirstArg());
         when(installmentRepository.save(any(Installment.class))).thenAnswer(returnsFirstArg());
 
@@ -245,9 +330,224 @@ public class DebtServiceTest {
         assertNotNull(result.getDebt());
         assertEquals(BigDecimal.ZERO.setScale(2, RoundingMode.HALF_EVEN), result.getDebt().getBalanceDue());
         assertNotNull(result.getDebt().getStatus());
-        assertEquals(DebtStatus.PAID, result.getDebt().getStatus().getId());
+        assertEquals(DebtStatus.PAID, result.getDebt().getStatus());
         assertNotNull(result.getDebt().getUpdatedAt());
         assertNotNull(result.getInterestRate());
         assertNotNull(result.getCreatedAt());
     }
+
+    @Test
+    void payInstallment_AtomicMode_AppliesBalanceReturnedByUpdate(){
+
+        DebtService atomicDebtService = new DebtService(debtRepository, installmentRepository, installmentScheduleRepository,
+                                                        eventPublisher, new DebtMetrics(new SimpleMeterRegistry()),
+                                                        INTEREST_RATE, PaymentMode.ATOMIC);
+        Long debtId = 1L;
+
+        Installment installment = new Installment();
+        installment.setValue(BigDecimal.valueOf(200));
+
+        // Balance read before a concurrent payment was committed, the update returns the balance after both
+        Debt debt = new Debt();
+        debt.setId(debtId);
+        debt.setStatus(DebtStatus.CREATED);
+        debt.setDueDate(LocalDate.of(2030,4, 25));
+        debt.setNumberOfInstallments(3);
+        debt.setTotalValue(BigDecimal.valueOf(600));
+        debt.setBalanceDue(BigDecimal.valueOf(600));
+
+        when(debtRepository.findReadOnlyById(debtId)).thenReturn(Optional.of(debt));
+        when(installmentScheduleRepository.findFirstByDebtIdAndPaidAtIsNullOrderByNumber(debtId))
+                .thenReturn(Optional.of(scheduled(debt, 1)));
+        when(installmentScheduleRepository.markPaid(any(), any())).thenReturn(1);
+        when(debtRepository.decrementBalanceDue(eq(debtId), eq(BigDecimal.valueOf(20000, 2)), any(),
+                                                eq(DebtStatus.PAID.getId()), eq(DebtStatus.PARTIALLY_PAID.getId())))
+                .thenReturn(Optional.of(balance(BigDecimal.valueOf(20000, 2), DebtStatus.PARTIALLY_PAID)));
+        when(installmentRepository.save(any(Installment.class))).thenAnswer(returnsFirstArg());
+
+        Installment result = atomicDebtService.payInstallment(debtId, installment);
+
+        assertEquals(BigDecimal.valueOf(20000, 2), result.getDebt().getBalanceDue());
+        assertEquals(DebtStatus.PARTIALLY_PAID, result.getDebt().getStatus());
+        assertNotNull(result.getInterestRate());
+        assertNotNull(result.getCreatedAt());
+        verify(debtRepository, never()).save(any(Debt.class));
+        verify(eventPublisher).publishEvent(any(DebtChangedEvent.class));
+    }
+
+    @Test
+    void payInstallment_AtomicModeDebtPaidConcurrently_ThrowsDebtAlreadyPaidException(){
+
+        DebtService atomicDebtService = new DebtService(debtRepository, installmentRepository, installmentScheduleRepository,
+                                                        eventPublisher, new DebtMetrics(new SimpleMeterRegistry()),
+                                                        INTEREST_RATE, PaymentMode.ATOMIC);
+        Long debtId = 1L;
+
+        Installment installment = new Installment();
+        installment.setValue(BigDecimal.valueOf(200));
+
+        Debt debt = new Debt();
+        debt.setId(debtId);
+        debt.setStatus(DebtStatus.PARTIALLY_PAID);
+        debt.setDueDate(LocalDate.of(2030,4, 25));
+        debt.setNumberOfInstallments(3);
+        debt.setTotalValue(BigDecimal.valueOf(600));
+        debt.setBalanceDue(BigDecimal.valueOf(200));
+
+        when(debtRepository.findReadOnlyById(debtId)).thenReturn(Optional.of(debt));
+        when(installmentScheduleRepository.findFirstByDebtIdAndPaidAtIsNullOrderByNumber(debtId))
+                .thenReturn(Optional.of(scheduled(debt, 3)));
+        when(installmentScheduleRepository.markPaid(any(), any())).thenReturn(1);
+        when(debtRepository.decrementBalanceDue(eq(debtId), any(), any(), any(), any())).thenReturn(Optional.empty());
+
+        assertThrows(DebtAlreadyPaidException.class, () -> atomicDebtService.payInstallment(debtId, installment));
+        verify(installmentRepository, never()).save(any(Installment.class));
+    }
+
+    @Test
+    void payInstallment_AtomicModeInstallmentPaidConcurrently_PaysNextInstallment(){
+
+        DebtService atomicDebtService = new DebtService(debtRepository, installmentRepository, installmentScheduleRepository,
+                                                        eventPublisher, new DebtMetrics(new SimpleMeterRegistry()),
+                                                        INTEREST_RATE, PaymentMode.ATOMIC);
+        Long debtId = 1L;
+
+        Installment installment = new Installment();
+        installment.setValue(BigDecimal.valueOf(200));
+
+        Debt debt = new Debt();
+        debt.setId(debtId);
+        debt.setStatus(DebtStatus.PARTIALLY_PAID);
+        debt.setDueDate(LocalDate.of(2030,4, 25));
+        debt.setNumberOfInstallments(3);
+        debt.setTotalValue(BigDecimal.valueOf(600));
+        debt.setBalanceDue(BigDecimal.valueOf(400));
+
+        ScheduledInstallment second = scheduled(debt, 2);
+        second.setId(2L);
+        ScheduledInstallment last = scheduled(debt, 3);
+        last.setId(3L);
+
+        when(debtRepository.findReadOnlyById(debtId)).thenReturn(Optional.of(debt));
+        when(installmentScheduleRepository.findFirstByDebtIdAndPaidAtIsNullOrderByNumber(debtId))
+                .thenReturn(Optional.of(second))
+                .thenReturn(Optional.of(last));
+        when(installmentScheduleRepository.markPaid(eq(2L), any())).thenReturn(0);
+        when(installmentScheduleRepository.markPaid(eq(3L), any())).thenReturn(1);
+        when(debtRepository.decrementBalanceDue(eq(debtId), eq(BigDecimal.valueOf(20000, 2)), any(),
+                                                eq(DebtStatus.PAID.getId()), eq(DebtStatus.PARTIALLY_PAID.getId())))
+                .thenReturn(Optional.of(balance(BigDecimal.valueOf(20000, 2), DebtStatus.PARTIALLY_PAID)));
+        when(installmentRepository.save(any(Installment.class))).thenAnswer(returnsFirstArg());
+
+        Installment result = atomicDebtService.payInstallment(debtId, installment);
+
+        assertEquals(DebtStatus.PARTIALLY_PAID, result.getDebt().getStatus());
+        verify(installmentScheduleRepository).markPaid(eq(3L), any());
+    }
+
+    @Test
+    void registerDebt_TotalNotDivisibleByInstallments_LastInstallmentTakesResidualCent(){
+
+        Debt debt = new Debt();
+        debt.setCreditorName("Pedro");
+        debt.setTotalValue(new BigDecimal("100.00"));
+        debt.setNumberOfInstallments(3);
+        debt.setDueDate(LocalDate.of(2030, 4, 25));
+
+        when(debtRepository.save(any(Debt.class))).thenAnswer(returnsFirstArg());
+        ArgumentCaptor<List<ScheduledInstallment>> schedule = ArgumentCaptor.captor();
+
+        debtService.registerDebt(debt);
+
+        verify(installmentScheduleRepository).saveAll(schedule.capture());
+        assertEquals(List.of(new BigDecimal("33.33"), new BigDecimal("33.33"), new BigDecimal("33.34")),
+                     schedule.getValue().stream().map(ScheduledInstallment::getValue).toList());
+        assertEquals(List.of(LocalDate.of(2030, 2, 25), LocalDate.of(2030, 3, 25), LocalDate.of(2030, 4, 25)),
+                     schedule.getValue().stream().map(ScheduledInstallment::getDueDate).toList());
+    }
+
+    @Test
+    void payInstallment_LastInstallmentWithResidualCent_ReturnsStatusPaid(){
+
+        Long debtId = 1L;
+
+        Installment installment = new Installment();
+        installment.setValue(new BigDecimal("33.34"));
+
+        Debt debt = new Debt();
+        debt.setId(debtId);
+        debt.setStatus(DebtStatus.PARTIALLY_PAID);
+        debt.setDueDate(LocalDate.of(2030,4, 25));
+        debt.setNumberOfInstallments(3);
+        debt.setTotalValue(new BigDecimal("100.00"));
+        debt.setBalanceDue(new BigDecimal("33.34"));
+
+        ScheduledInstallment last = scheduled(debt, 3);
+
+        when(debtRepository.findById(debtId)).thenReturn(Optional.of(debt));
+        when(installmentScheduleRepository.findFirstByDebtIdAndPaidAtIsNullOrderByNumber(debtId))
+                .thenReturn(Optional.of(last));
+        when(debtRepository.save(any(Debt.class))).thenAnswer(returnsFirstArg());
+        when(installmentRepository.save(any(Installment.class))).thenAnswer(returnsFirstArg());
+
+        Installment result = debtService.payInstallment(debtId, installment);
+
+        assertEquals(BigDecimal.valueOf(0, 2), result.getDebt().getBalanceDue());
+        assertEquals(DebtStatus.PAID, result.getDebt().getStatus());
+        assertNotNull(last.getPaidAt());
+    }
+
+    @Test
+    void payInstallment_IncorrectValue_CountsExceptionAndRecordsTime(){
+
+        Long debtId = 1L;
+
+        Installment installment = new Installment();
+        installment.setValue(BigDecimal.valueOf(150));
+
+        Debt debt = new Debt();
+        debt.setId(debtId);
+        debt.setStatus(DebtStatus.CREATED);
+        debt.setDueDate(LocalDate.of(2030,4, 25));
+        debt.setNumberOfInstallments(3);
+        debt.setTotalValue(BigDecimal.valueOf(600));
+        debt.setBalanceDue(BigDecimal.valueOf(600));
+
+        when(debtRepository.findById(debtId)).thenReturn(Optional.of(debt));
+        when(installmentScheduleRepository.findFirstByDebtIdAndPaidAtIsNullOrderByNumber(debtId))
+                .thenReturn(Optional.of(scheduled(debt, 1)));
+
+        assertThrows(IncorrectValueException.class, () -> debtService.payInstallment(debtId, installment));
+
+        assertEquals(1.0, meterRegistry.get(DebtMetrics.EXCEPTION_COUNTER)
+                                       .tag("exception", "IncorrectValueException")
+                                       .counter()
+                                       .count());
+        assertEquals(0.0, meterRegistry.get(DebtMetrics.EXCEPTION_COUNTER)
+                                       .tag("exception", "DebtOverdueException")
+                                       .counter()
+                                       .count());
+        assertEquals(1L, meterRegistry.get(DebtMetrics.SERVICE_TIMER)
+                                      .tag("method", "payInstallment")
+                                      .timer()
+                                      .count());
+    }
+
+    private static ScheduledInstallment scheduled(Debt debt, int number){
+        return new InstallmentCalculator(INTEREST_RATE).schedule(debt).get(number - 1);
+    }
+
+    private static DebtBalance balance(BigDecimal balanceDue, DebtStatus status){
+        return new DebtBalance() {
+            @Override
+            public BigDecimal getBalanceDue() {
+                return balanceDue;
+            }
+
+            @Override
+            public Integer getStatusId() {
+                return status.getId();
+            }
+        };
+    }
 }
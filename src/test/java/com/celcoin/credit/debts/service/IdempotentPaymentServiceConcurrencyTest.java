@@ -0,0 +1,130 @@
+package com.celcoin.credit.debts.service;
+
+import com.celcoin.credit.debts.entity.Debt;
+import com.celcoin.credit.debts.entity.Installment;
+import com.celcoin.credit.debts.repository.DebtRepository;
+import com.celcoin.credit.debts.repository.InstallmentRepository;
+import com.celcoin.credit.debts.valueobject.DebtStatus;
+import com.celcoin.credit.debts.valueobject.InstallmentResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Sends requests with the same Idempotency-Key at once on PostgreSQL, for the last installments of a debt, where the
+ * requests that lose the race fail on the installment the first one paid. Skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(properties = {
+        "bu-credit.interest-rate=5",
+        "bu-credit.payment.mode=atomic",
+        "spring.datasource.hikari.schema=bu_credit_schema",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({DebtService.class, IdempotentPaymentService.class, DebtMetrics.class, SimpleMeterRegistry.class})
+public class IdempotentPaymentServiceConcurrencyTest {
+
+    private static final int REQUESTS = 8;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:13.1-alpine");
+
+    @Autowired
+    private DebtService debtService;
+
+    @Autowired
+    private IdempotentPaymentService idempotentPaymentService;
+
+    @Autowired
+    private DebtRepository debtRepository;
+
+    @Autowired
+    private InstallmentRepository installmentRepository;
+
+    @Test
+    void payInstallment_ConcurrentRequestsWithSameKey_AllGetTheFirstPayment() throws Exception {
+
+        // 333.33, 333.33 and 333.34: the requests losing on the second installment are checked against the third
+        Debt debt = new Debt();
+        debt.setCreditorName("Creditor");
+        debt.setTotalValue(BigDecimal.valueOf(1000));
+        debt.setNumberOfInstallments(3);
+        debt.setDueDate(LocalDate.now().plusYears(1));
+        Long debtId = debtService.registerDebt(debt).getId();
+        long installments = installmentRepository.count();
+
+        idempotentPaymentService.payInstallment("first", debtId, installment("333.33"));
+
+        assertSamePayment(payConcurrently("second", debtId, "333.33"));
+        assertSamePayment(payConcurrently("last", debtId, "333.34"));
+
+        Debt result = debtRepository.findById(debtId).orElseThrow();
+        assertEquals(installments + 3, installmentRepository.count());
+        assertEquals(0, BigDecimal.ZERO.compareTo(result.getBalanceDue()));
+        assertEquals(DebtStatus.PAID, result.getStatus());
+    }
+
+    private List<InstallmentResponse> payConcurrently(String key, Long debtId, String value) throws Exception {
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(REQUESTS);
+        List<Future<InstallmentResponse>> requests = new ArrayList<>();
+
+        try{
+            for(int i = 0; i < REQUESTS; i++){
+                requests.add(executor.submit(() -> {
+                    Installment installment = installment(value);
+                    start.await();
+                    return idempotentPaymentService.payInstallment(key, debtId, installment);
+                }));
+            }
+            start.countDown();
+
+            List<InstallmentResponse> responses = new ArrayList<>();
+            for(Future<InstallmentResponse> request : requests){
+                responses.add(request.get());
+            }
+            return responses;
+        }finally{
+            executor.shutdownNow();
+        }
+    }
+
+    private static void assertSamePayment(List<InstallmentResponse> responses){
+
+        for(InstallmentResponse response : responses){
+            assertEquals(responses.get(0).getId(), response.getId());
+        }
+    }
+
+    private static Installment installment(String value){
+
+        Installment installment = new Installment();
+        installment.setValue(new BigDecimal(value));
+
+        return installment;
+    }
+}
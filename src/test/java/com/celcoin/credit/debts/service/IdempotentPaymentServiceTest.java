@@ -0,0 +1,146 @@
+package com.celcoin.credit.debts.service;
+
+import com.celcoin.credit.debts.entity.IdempotencyKey;
+import com.celcoin.credit.debts.entity.Installment;
+import com.celcoin.credit.debts.exception.DebtAlreadyPaidException;
+import com.celcoin.credit.debts.exception.IdempotencyKeyReusedException;
+import com.celcoin.credit.debts.repository.IdempotencyKeyRepository;
+import com.celcoin.credit.debts.valueobject.InstallmentResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class IdempotentPaymentServiceTest {
+
+    private IdempotentPaymentService idempotentPaymentService;
+    private MeterRegistry meterRegistry;
+
+    @Mock
+    private DebtService debtService;
+
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setup(){
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.idempotentPaymentService = new IdempotentPaymentService(debtService, idempotencyKeyRepository,
+                                                                     entityManager, transactionManager,
+                                                                     meterRegistry, 100, Duration.ofHours(1));
+    }
+
+    @Test
+    void payInstallment_SameKeyTwice_PaysOnceAndAnswersRetryFromCache(){
+
+        when(idempotencyKeyRepository.findWithInstallmentByKey("key-1")).thenReturn(Optional.empty());
+        when(debtService.payInstallment(eq(1L), any(Installment.class))).thenAnswer(invocation -> installment(7L));
+
+        InstallmentResponse first = idempotentPaymentService.payInstallment("key-1", 1L, installment(null));
+        InstallmentResponse retry = idempotentPaymentService.payInstallment("key-1", 1L, installment(null));
+
+        assertEquals(7L, first.getId());
+        assertSame(first, retry);
+        verify(debtService, times(1)).payInstallment(eq(1L), any(Installment.class));
+        verify(idempotencyKeyRepository, times(1)).findWithInstallmentByKey("key-1");
+        verify(entityManager).persist(any(IdempotencyKey.class));
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", IdempotentPaymentService.CACHE_NAME)
+                                       .tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void payInstallment_KeyStoredBeforeRestart_ReturnsStoredPaymentWithoutPaying(){
+
+        when(idempotencyKeyRepository.findWithInstallmentByKey("key-1")).thenReturn(Optional.of(storedKey("key-1", 1L, 7L)));
+
+        InstallmentResponse result = idempotentPaymentService.payInstallment("key-1", 1L, installment(null));
+
+        assertEquals(7L, result.getId());
+        verifyNoInteractions(debtService);
+    }
+
+    @Test
+    void payInstallment_KeyUsedForAnotherDebt_ThrowsIdempotencyKeyReusedException(){
+
+        when(idempotencyKeyRepository.findWithInstallmentByKey("key-1")).thenReturn(Optional.of(storedKey("key-1", 2L, 7L)));
+
+        assertThrows(IdempotencyKeyReusedException.class,
+                     () -> idempotentPaymentService.payInstallment("key-1", 1L, installment(null)));
+        verifyNoInteractions(debtService);
+    }
+
+    @Test
+    void payInstallment_ConcurrentRequestStoredKeyFirst_ReturnsItsPayment(){
+
+        when(idempotencyKeyRepository.findWithInstallmentByKey("key-1"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(storedKey("key-1", 1L, 7L)));
+        when(debtService.payInstallment(eq(1L), any(Installment.class))).thenAnswer(invocation -> installment(8L));
+        doThrow(new DataIntegrityViolationException("duplicate key")).when(entityManager).flush();
+
+        InstallmentResponse result = idempotentPaymentService.payInstallment("key-1", 1L, installment(null));
+
+        assertEquals(7L, result.getId());
+    }
+
+    @Test
+    void payInstallment_ConcurrentRequestPaidDebtFirst_ReturnsItsPayment(){
+
+        when(idempotencyKeyRepository.findWithInstallmentByKey("key-1"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(storedKey("key-1", 1L, 7L)));
+        when(debtService.payInstallment(eq(1L), any(Installment.class))).thenThrow(new DebtAlreadyPaidException());
+
+        InstallmentResponse result = idempotentPaymentService.payInstallment("key-1", 1L, installment(null));
+
+        assertEquals(7L, result.getId());
+    }
+
+    @Test
+    void payInstallment_PaymentFailsWithoutStoredKey_ThrowsItsError(){
+
+        when(idempotencyKeyRepository.findWithInstallmentByKey("key-1")).thenReturn(Optional.empty());
+        when(debtService.payInstallment(eq(1L), any(Installment.class))).thenThrow(new DebtAlreadyPaidException());
+
+        assertThrows(DebtAlreadyPaidException.class,
+                     () -> idempotentPaymentService.payInstallment("key-1", 1L, installment(null)));
+        verify(idempotencyKeyRepository, times(2)).findWithInstallmentByKey("key-1");
+    }
+
+    private static Installment installment(Long id){
+        Installment installment = new Installment();
+        installment.setId(id);
+        installment.setValue(BigDecimal.valueOf(200));
+        return installment;
+    }
+
+    private static IdempotencyKey storedKey(String key, Long debtId, Long installmentId){
+        IdempotencyKey idempotencyKey = new IdempotencyKey();
+        idempotencyKey.setKey(key);
+        idempotencyKey.setDebtId(debtId);
+        idempotencyKey.setInstallment(installment(installmentId));
+        return idempotencyKey;
+    }
+}
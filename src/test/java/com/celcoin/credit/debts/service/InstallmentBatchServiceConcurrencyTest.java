@@ -0,0 +1,149 @@
+package com.celcoin.credit.debts.service;
+
+import com.celcoin.credit.debts.entity.Debt;
+import com.celcoin.credit.debts.entity.Installment;
+import com.celcoin.credit.debts.exception.DebtAlreadyPaidException;
+import com.celcoin.credit.debts.repository.DebtRepository;
+import com.celcoin.credit.debts.repository.InstallmentRepository;
+import com.celcoin.credit.debts.repository.InstallmentScheduleRepository;
+import com.celcoin.credit.debts.valueobject.BatchPayInstallmentItem;
+import com.celcoin.credit.debts.valueobject.DebtStatus;
+import com.celcoin.credit.debts.valueobject.InstallmentBatchResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs a batch of payments on PostgreSQL while single payments of the same debts run in parallel, every installment
+ * being offered twice. Skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(properties = {
+        "bu-credit.interest-rate=5",
+        "bu-credit.payment.mode=atomic",
+        "bu-credit.batch.chunk-size=25",
+        "spring.datasource.hikari.schema=bu_credit_schema",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({DebtService.class, InstallmentBatchService.class, DebtMetrics.class, SimpleMeterRegistry.class})
+public class InstallmentBatchServiceConcurrencyTest {
+
+    private static final int DEBTS = 20;
+    private static final int INSTALLMENTS = 10;
+    private static final int THREADS = 16;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:13.1-alpine");
+
+    @Autowired
+    private DebtService debtService;
+
+    @Autowired
+    private InstallmentBatchService installmentBatchService;
+
+    @Autowired
+    private DebtRepository debtRepository;
+
+    @Autowired
+    private InstallmentRepository installmentRepository;
+
+    @Autowired
+    private InstallmentScheduleRepository installmentScheduleRepository;
+
+    @Test
+    void payInstallments_ParallelSinglePaymentsOnSameDebts_LosesNoDecrement() throws Exception {
+
+        List<Long> debtIds = new ArrayList<>();
+        List<BatchPayInstallmentItem> items = new ArrayList<>();
+        for(int i = 0; i < DEBTS; i++){
+            Debt debt = new Debt();
+            debt.setCreditorName("Creditor " + i);
+            debt.setTotalValue(BigDecimal.valueOf(1000));
+            debt.setNumberOfInstallments(INSTALLMENTS);
+            debt.setDueDate(LocalDate.now().plusYears(1));
+            Long debtId = debtService.registerDebt(debt).getId();
+            debtIds.add(debtId);
+
+            for(int j = 0; j < INSTALLMENTS; j++){
+                BatchPayInstallmentItem item = new BatchPayInstallmentItem();
+                item.setDebtId(debtId);
+                item.setValue(BigDecimal.valueOf(100));
+                items.add(item);
+            }
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<Boolean>> payments = new ArrayList<>();
+
+        try{
+            Future<List<InstallmentBatchResult>> batch = executor.submit(() -> {
+                start.await();
+                return installmentBatchService.payInstallments(items);
+            });
+            for(int j = 0; j < INSTALLMENTS; j++){
+                for(Long debtId : debtIds){
+                    payments.add(executor.submit(() -> {
+                        Installment installment = new Installment();
+                        installment.setValue(BigDecimal.valueOf(100));
+                        start.await();
+                        try{
+                            debtService.payInstallment(debtId, installment);
+                            return true;
+                        }catch(DebtAlreadyPaidException e){
+                            return false;
+                        }
+                    }));
+                }
+            }
+            start.countDown();
+
+            int paid = 0;
+            for(Future<Boolean> payment : payments){
+                if(payment.get()){
+                    paid++;
+                }
+            }
+            for(InstallmentBatchResult result : batch.get()){
+                if(result.getError() == null){
+                    paid++;
+                }else{
+                    assertInstanceOf(DebtAlreadyPaidException.class, result.getError());
+                }
+            }
+
+            assertEquals(DEBTS * INSTALLMENTS, paid);
+            assertEquals(DEBTS * INSTALLMENTS, installmentRepository.count());
+            assertTrue(installmentScheduleRepository.findUnpaidByDebtIds(debtIds).isEmpty());
+            for(Debt debt : debtRepository.findAllById(debtIds)){
+                assertEquals(0, BigDecimal.ZERO.compareTo(debt.getBalanceDue()));
+                assertEquals(DebtStatus.PAID, debt.getStatus());
+            }
+        }finally{
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.celcoin.credit.debts.service;
+
+import com.celcoin.credit.debts.entity.Debt;
+import com.celcoin.credit.debts.valueobject.BatchPayInstallmentItem;
+import com.celcoin.credit.debts.valueobject.DebtStatus;
+import com.celcoin.credit.debts.valueobject.InstallmentBatchResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "bu-credit.interest-rate=5",
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true",
+        "spring.jpa.properties.hibernate.order_updates=true"
+})
+@Import({DebtService.class, InstallmentBatchService.class, DebtMetrics.class, SimpleMeterRegistry.class})
+public class InstallmentBatchServiceStatementCountTest {
+
+    private static final int DEBTS = 100;
+
+    @Autowired
+    private InstallmentBatchService installmentBatchService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void payInstallments_ManyPayments_UsesBatchedStatements(){
+
+        List<BatchPayInstallmentItem> items = new ArrayList<>();
+        for(int i = 0; i < DEBTS; i++){
+            Debt debt = new Debt();
+            debt.setCreditorName("Creditor " + i);
+            debt.setTotalValue(BigDecimal.valueOf(600));
+            debt.setNumberOfInstallments(3);
+            debt.setDueDate(LocalDate.now().plusYears(1));
+            debt.setBalanceDue(BigDecimal.valueOf(600));
+            debt.setStatus(DebtStatus.CREATED);
+            debt.setCreatedAt(LocalDateTime.now());
+            debt.setUpdatedAt(LocalDateTime.now());
+            Long id = entityManager.persistAndGetId(debt, Long.class);
+            new InstallmentCalculator(BigDecimal.valueOf(5)).schedule(debt).forEach(entityManager::persist);
+
+            for(int j = 0; j < 2; j++){
+                BatchPayInstallmentItem item = new BatchPayInstallmentItem();
+                item.setDebtId(id);
+                item.setValue(BigDecimal.valueOf(200));
+                items.add(item);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<InstallmentBatchResult> results = installmentBatchService.payInstallments(items);
+
+        assertTrue(results.stream().allMatch(result -> result.getError() == null));
+        assertEquals(2L * DEBTS, statistics.getEntityInsertCount());
+        assertEquals(3L * DEBTS, statistics.getEntityUpdateCount());
+        // 2 selects, ceil(200 / 50) sequence calls, 4 insert batches and 6 update batches of debts and schedule rows,
+        // instead of 500+ statements
+        assertTrue(statistics.getPrepareStatementCount() <= 20,
+                   "statements prepared: " + statistics.getPrepareStatementCount());
+    }
+}
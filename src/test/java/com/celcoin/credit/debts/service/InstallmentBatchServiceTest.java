@@ -0,0 +1,190 @@
+package com.celcoin.credit.debts.service;
+
+import com.celcoin.credit.debts.entity.Debt;
+import com.celcoin.credit.debts.entity.Installment;
+import com.celcoin.credit.debts.entity.ScheduledInstallment;
+import com.celcoin.credit.debts.exception.BatchChunkFailedException;
+import com.celcoin.credit.debts.exception.DebtAlreadyPaidException;
+import com.celcoin.credit.debts.exception.DebtNotFoundException;
+import com.celcoin.credit.debts.exception.IncorrectValueException;
+import com.celcoin.credit.debts.repository.DebtRepository;
+import com.celcoin.credit.debts.repository.InstallmentRepository;
+import com.celcoin.credit.debts.repository.InstallmentScheduleRepository;
+import com.celcoin.credit.debts.valueobject.BatchPayInstallmentItem;
+import com.celcoin.credit.debts.valueobject.DebtStatus;
+import com.celcoin.credit.debts.valueobject.InstallmentBatchResult;
+import com.celcoin.credit.debts.valueobject.PaymentMode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class InstallmentBatchServiceTest {
+
+    private InstallmentBatchService installmentBatchService;
+
+    @Mock
+    private DebtRepository debtRepository;
+
+    @Mock
+    private InstallmentRepository installmentRepository;
+
+    @Mock
+    private InstallmentScheduleRepository installmentScheduleRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setup(){
+        this.installmentBatchService = installmentBatchService(PaymentMode.ATOMIC);
+    }
+
+    @Test
+    void payInstallments_MixedPayments_ReturnsOutcomeOfEachPaymentInOrder(){
+
+        Debt open = debt(1L, DebtStatus.CREATED, 600);
+        Debt paid = debt(2L, DebtStatus.PAID, 0);
+
+        when(debtRepository.lockAllById(anyList()))
+                .thenReturn(List.of(open, paid))
+                .thenReturn(List.of(open));
+        when(installmentScheduleRepository.lockUnpaidByDebtIds(anyList()))
+                .thenReturn(unpaid(open, 1))
+                .thenReturn(unpaid(open, 2));
+
+        List<InstallmentBatchResult> results = installmentBatchService.payInstallments(List.of(
+                item(1L, 200),
+                item(2L, 200),
+                item(1L, 150),
+                item(3L, 200)));
+
+        assertEquals(4, results.size());
+        assertNotNull(results.get(0).getInstallment());
+        assertInstanceOf(DebtAlreadyPaidException.class, results.get(1).getError());
+        assertInstanceOf(IncorrectValueException.class, results.get(2).getError());
+        assertInstanceOf(DebtNotFoundException.class, results.get(3).getError());
+        assertEquals(BigDecimal.valueOf(40000, 2), open.getBalanceDue());
+        assertEquals(DebtStatus.PARTIALLY_PAID, open.getStatus());
+
+        InOrder locks = inOrder(installmentScheduleRepository, debtRepository);
+        locks.verify(installmentScheduleRepository).lockUnpaidByDebtIds(List.of(1L, 2L));
+        locks.verify(debtRepository).lockAllById(List.of(1L, 2L));
+        locks.verify(installmentScheduleRepository).lockUnpaidByDebtIds(List.of(1L, 3L));
+        locks.verify(debtRepository).lockAllById(List.of(1L, 3L));
+        verify(entityManager, times(2)).flush();
+    }
+
+    @Test
+    void payInstallments_SameDebtTwiceInChunk_AppliesBothPayments(){
+
+        Debt debt = debt(1L, DebtStatus.PARTIALLY_PAID, 400);
+
+        List<ScheduledInstallment> unpaid = unpaid(debt, 2);
+
+        when(debtRepository.lockAllById(anyList())).thenReturn(List.of(debt));
+        when(installmentScheduleRepository.lockUnpaidByDebtIds(anyList())).thenReturn(unpaid);
+
+        List<InstallmentBatchResult> results = installmentBatchService.payInstallments(List.of(item(1L, 200), item(1L, 200)));
+
+        assertNull(results.get(0).getError());
+        assertNull(results.get(1).getError());
+        assertEquals(BigDecimal.valueOf(0, 2), debt.getBalanceDue());
+        assertEquals(DebtStatus.PAID, debt.getStatus());
+        assertTrue(unpaid.stream().allMatch(scheduled -> scheduled.getPaidAt() != null));
+    }
+
+    @Test
+    void payInstallments_ChunkFailsToSave_ReportsEveryPaymentOfChunkAsFailed(){
+
+        Debt debt = debt(1L, DebtStatus.CREATED, 600);
+        when(debtRepository.lockAllById(anyList())).thenReturn(List.of(debt));
+        when(installmentScheduleRepository.lockUnpaidByDebtIds(anyList())).thenReturn(unpaid(debt, 1));
+        doThrow(new DataIntegrityViolationException("duplicate key")).when(installmentRepository).saveAll(ArgumentMatchers.<Installment>anyList());
+
+        List<InstallmentBatchResult> results = installmentBatchService.payInstallments(List.of(item(1L, 200), item(1L, 200)));
+
+        assertInstanceOf(BatchChunkFailedException.class, results.get(0).getError());
+        assertInstanceOf(BatchChunkFailedException.class, results.get(1).getError());
+    }
+
+    @Test
+    void payInstallments_EntityMode_ReadsDebtsAndScheduleWithoutLocks(){
+
+        Debt debt = debt(1L, DebtStatus.CREATED, 600);
+        when(debtRepository.findAllById(anyList())).thenReturn(List.of(debt));
+        when(installmentScheduleRepository.findUnpaidByDebtIds(anyList())).thenReturn(unpaid(debt, 1));
+
+        List<InstallmentBatchResult> results = installmentBatchService(PaymentMode.ENTITY).payInstallments(List.of(item(1L, 200)));
+
+        assertNull(results.get(0).getError());
+        verify(debtRepository, never()).lockAllById(anyList());
+        verify(installmentScheduleRepository, never()).lockUnpaidByDebtIds(anyList());
+    }
+
+    private InstallmentBatchService installmentBatchService(PaymentMode paymentMode){
+
+        DebtService debtService = new DebtService(debtRepository, installmentRepository, installmentScheduleRepository,
+                                                  event -> {}, new DebtMetrics(new SimpleMeterRegistry()),
+                                                  BigDecimal.valueOf(5), paymentMode);
+
+        return new InstallmentBatchService(debtService,
+                                           debtRepository,
+                                           installmentRepository,
+                                           installmentScheduleRepository,
+                                           new DebtMetrics(new SimpleMeterRegistry()),
+                                           entityManager,
+                                           transactionManager,
+                                           2,
+                                           paymentMode);
+    }
+
+    private static Debt debt(Long id, DebtStatus status, long balanceDue){
+
+        Debt debt = new Debt();
+        debt.setId(id);
+        debt.setStatus(status);
+        debt.setDueDate(LocalDate.now().plusYears(1));
+        debt.setNumberOfInstallments(3);
+        debt.setTotalValue(BigDecimal.valueOf(600));
+        debt.setBalanceDue(BigDecimal.valueOf(balanceDue));
+
+        return debt;
+    }
+
+    // Schedule rows still unpaid from installment number on
+    private static List<ScheduledInstallment> unpaid(Debt debt, int number){
+
+        List<ScheduledInstallment> schedule = new InstallmentCalculator(BigDecimal.valueOf(5)).schedule(debt);
+
+        return schedule.subList(number - 1, schedule.size());
+    }
+
+    private static BatchPayInstallmentItem item(Long debtId, long value){
+
+        BatchPayInstallmentItem item = new BatchPayInstallmentItem();
+        item.setDebtId(debtId);
+        item.setValue(BigDecimal.valueOf(value));
+
+        return item;
+    }
+}
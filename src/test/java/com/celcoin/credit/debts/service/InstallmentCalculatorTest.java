@@ -0,0 +1,155 @@
+package com.celcoin.credit.debts.service;
+
+import com.celcoin.credit.debts.entity.Debt;
+import com.celcoin.credit.debts.entity.ScheduledInstallment;
+import com.celcoin.credit.debts.exception.DebtOverdueException;
+import com.celcoin.credit.debts.exception.IncorrectValueException;
+import com.celcoin.credit.debts.valueobject.InstallmentPayment;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InstallmentCalculatorTest {
+
+    private static final LocalDate DUE_DATE = LocalDate.of(2030, 4, 25);
+    private static final int CASES = 200_000;
+
+    @Test
+    void divideHalfEven_AnyAmount_MatchesBigDecimal(){
+
+        Random random = new Random(42);
+
+        for(int i = 0; i < CASES; i++){
+            long cents = random.nextLong(-99_999_999_999L, 99_999_999_999L);
+            long divisor = random.nextInt(1, 721) * (random.nextBoolean() ? 1 : -1);
+
+            BigDecimal expected = Money.toBigDecimal(cents).divide(BigDecimal.valueOf(divisor), 2, RoundingMode.HALF_EVEN);
+
+            assertEquals(expected, Money.toBigDecimal(Money.divideHalfEven(cents, divisor)), cents + " / " + divisor);
+        }
+    }
+
+    @Test
+    void schedule_RandomDebts_SumsToTotalValueWithResidualInLastInstallment(){
+
+        Random random = new Random(11);
+
+        for(int i = 0; i < CASES / 10; i++){
+            Debt debt = new Debt();
+            debt.setTotalValue(BigDecimal.valueOf(random.nextLong(100, 1_000_000_000L), 2));
+            debt.setNumberOfInstallments(random.nextInt(1, 361));
+            debt.setDueDate(DUE_DATE);
+
+            List<ScheduledInstallment> schedule = new InstallmentCalculator(BigDecimal.valueOf(5)).schedule(debt);
+            ScheduledInstallment last = schedule.get(schedule.size() - 1);
+
+            assertEquals(debt.getNumberOfInstallments(), schedule.size());
+            assertEquals(debt.getTotalValue(), schedule.stream().map(ScheduledInstallment::getValue).reduce(BigDecimal.ZERO, BigDecimal::add));
+            assertTrue(last.getValue().signum() >= 0, debt.getTotalValue() + " / " + debt.getNumberOfInstallments());
+            assertEquals(DUE_DATE, last.getDueDate());
+            assertEquals(DUE_DATE.minusMonths(schedule.size() - 1), schedule.get(0).getDueDate());
+            if(schedule.size() > 1 && debt.getTotalValue().compareTo(BigDecimal.valueOf(debt.getNumberOfInstallments())) >= 0){
+                assertEquals(referenceInstallmentValue(debt), schedule.get(0).getValue());
+            }
+        }
+    }
+
+    @Test
+    void schedule_TotalNotDivisible_LastInstallmentTakesResidualCent(){
+
+        Debt debt = new Debt();
+        debt.setTotalValue(new BigDecimal("100.00"));
+        debt.setNumberOfInstallments(3);
+        debt.setDueDate(DUE_DATE);
+
+        List<ScheduledInstallment> schedule = new InstallmentCalculator(BigDecimal.valueOf(5)).schedule(debt);
+
+        assertEquals(List.of(new BigDecimal("33.33"), new BigDecimal("33.33"), new BigDecimal("33.34")),
+                     schedule.stream().map(ScheduledInstallment::getValue).toList());
+        assertEquals(List.of(1, 2, 3), schedule.stream().map(ScheduledInstallment::getNumber).toList());
+    }
+
+    @Test
+    void calculate_RandomPayments_MatchesBigDecimalCalculation(){
+
+        Random random = new Random(7);
+
+        for(int i = 0; i < CASES; i++){
+            BigDecimal interestRate = BigDecimal.valueOf(random.nextInt(0, 1000), random.nextInt(0, 4));
+            Debt debt = new Debt();
+            debt.setTotalValue(BigDecimal.valueOf(random.nextLong(0, 1_000_000_000L), 2));
+            debt.setNumberOfInstallments(random.nextInt(1, 361));
+            debt.setBalanceDue(BigDecimal.valueOf(random.nextLong(0, 1_000_000_000L), 2));
+            debt.setDueDate(DUE_DATE);
+            LocalDate today = random.nextBoolean() ? DUE_DATE : DUE_DATE.plusDays(1);
+
+            BigDecimal installmentValue = new InstallmentCalculator(interestRate).schedule(debt).get(0).getValue();
+            BigDecimal expectedValue = referenceFinalValue(installmentValue, debt, interestRate, today);
+            BigDecimal paidValue = switch(random.nextInt(4)){
+                case 0 -> expectedValue;
+                case 1 -> expectedValue.setScale(2, RoundingMode.HALF_EVEN);
+                case 2 -> expectedValue.setScale(2, RoundingMode.HALF_EVEN).add(BigDecimal.valueOf(1, 2));
+                default -> BigDecimal.valueOf(random.nextLong(0, 1_000_000_000L), 2);
+            };
+
+            assertSameOutcome(debt, interestRate, paidValue, today);
+        }
+    }
+
+    @Test
+    void calculate_OverdueResidualCents_MatchesBigDecimalCalculation(){
+
+        Debt debt = new Debt();
+        debt.setTotalValue(new BigDecimal("100.00"));
+        debt.setNumberOfInstallments(3);
+        debt.setBalanceDue(new BigDecimal("100.00"));
+        debt.setDueDate(DUE_DATE);
+
+        assertSameOutcome(debt, BigDecimal.valueOf(5), new BigDecimal("35.00"), DUE_DATE.plusDays(1));
+        assertSameOutcome(debt, BigDecimal.valueOf(5), new BigDecimal("34.9965"), DUE_DATE.plusDays(1));
+        assertSameOutcome(debt, new BigDecimal("2.75"), new BigDecimal("33.33"), DUE_DATE);
+    }
+
+    private void assertSameOutcome(Debt debt, BigDecimal interestRate, BigDecimal paidValue, LocalDate today){
+
+        InstallmentCalculator calculator = new InstallmentCalculator(interestRate);
+        ScheduledInstallment scheduled = calculator.schedule(debt).get(0);
+        BigDecimal expectedValue = referenceFinalValue(scheduled.getValue(), debt, interestRate, today);
+
+        if(paidValue.compareTo(expectedValue) != 0){
+            RuntimeException e = assertThrows(RuntimeException.class, () -> calculator.calculate(debt, scheduled, paidValue, today));
+            RuntimeException expected = today.isAfter(debt.getDueDate())
+                    ? new DebtOverdueException(expectedValue, interestRate)
+                    : new IncorrectValueException(expectedValue);
+            assertEquals(expected.getClass(), e.getClass());
+            assertEquals(expected.getMessage(), e.getMessage());
+            return;
+        }
+
+        InstallmentPayment payment = calculator.calculate(debt, scheduled, paidValue, today);
+        BigDecimal installmentValue = scheduled.getValue();
+
+        assertEquals(installmentValue, Money.toBigDecimal(payment.getInstallmentValueCents()));
+        assertEquals(debt.getBalanceDue().subtract(installmentValue), Money.toBigDecimal(payment.getNewBalanceDueCents()));
+        assertEquals(today.isAfter(debt.getDueDate()) ? interestRate : BigDecimal.ZERO, payment.getInterestRate());
+    }
+
+    // The BigDecimal computation payInstallment used before amounts moved to cents
+    private static BigDecimal referenceInstallmentValue(Debt debt){
+        return debt.getTotalValue().divide(BigDecimal.valueOf(debt.getNumberOfInstallments()), 2, RoundingMode.HALF_EVEN);
+    }
+
+    private static BigDecimal referenceFinalValue(BigDecimal installmentValue, Debt debt, BigDecimal interestRate, LocalDate today){
+
+        BigDecimal finalInterestRate = today.isAfter(debt.getDueDate()) ? interestRate : BigDecimal.ZERO;
+        BigDecimal decimalInterestRate = finalInterestRate.divide(BigDecimal.valueOf(100), 4, RoundingMode.HALF_EVEN);
+
+        return installmentValue.multiply(decimalInterestRate.add(BigDecimal.ONE));
+    }
+}
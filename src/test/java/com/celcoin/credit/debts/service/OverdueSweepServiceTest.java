@@ -0,0 +1,179 @@
+package com.celcoin.credit.debts.service;
+
+import com.celcoin.credit.debts.entity.Debt;
+import com.celcoin.credit.debts.entity.JobLease;
+import com.celcoin.credit.debts.repository.DebtRepository;
+import com.celcoin.credit.debts.repository.JobLeaseRepository;
+import com.celcoin.credit.debts.valueobject.DebtStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@DataJpaTest(properties = {
+        "bu-credit.interest-rate=5",
+        "bu-credit.overdue-sweep.chunk-size=2",
+        "bu-credit.overdue-sweep.chunk-pause=0ms",
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(OverdueSweepService.class)
+public class OverdueSweepServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 30);
+
+    @Autowired
+    private OverdueSweepService overdueSweepService;
+
+    @Autowired
+    private DebtRepository debtRepository;
+
+    @Autowired
+    private JobLeaseRepository jobLeaseRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setup(){
+
+        debtRepository.deleteAll();
+        lease(null, LocalDateTime.of(1970, 1, 1, 0, 0));
+    }
+
+    @Test
+    void sweep_UnpaidDebtsDueBeforeToday_MarksThemOverdueInChunks(){
+
+        Long created = save(DebtStatus.CREATED, TODAY.minusDays(40));
+        Long partiallyPaid = save(DebtStatus.PARTIALLY_PAID, TODAY.minusDays(10));
+        Long createdYesterday = save(DebtStatus.CREATED, TODAY.minusDays(1));
+        Long paid = save(DebtStatus.PAID, TODAY.minusDays(20));
+        Long dueToday = save(DebtStatus.CREATED, TODAY);
+
+        assertEquals(3, overdueSweepService.sweep(TODAY));
+
+        assertEquals(DebtStatus.OVERDUE, status(created));
+        assertEquals(DebtStatus.OVERDUE, status(partiallyPaid));
+        assertEquals(DebtStatus.OVERDUE, status(createdYesterday));
+        assertEquals(DebtStatus.PAID, status(paid));
+        assertEquals(DebtStatus.CREATED, status(dueToday));
+
+        // The walk reached the last candidate, the next one starts over
+        JobLease lease = jobLeaseRepository.findById(OverdueSweepService.JOB_NAME).orElseThrow();
+        assertNull(lease.getCheckpointDueDate());
+        assertNull(lease.getCheckpointId());
+
+        // The next day only finds the debt that became overdue
+        assertEquals(1, overdueSweepService.sweep(TODAY.plusDays(1)));
+        assertEquals(DebtStatus.OVERDUE, status(dueToday));
+    }
+
+    @Test
+    void sweep_InterruptedWalk_ResumesFromCheckpointThenStartsOver(){
+
+        Long before = save(DebtStatus.CREATED, TODAY.minusDays(40));
+        Long after = save(DebtStatus.CREATED, TODAY.minusDays(10));
+        checkpoint(TODAY.minusDays(20), 0L);
+
+        assertEquals(1, overdueSweepService.sweep(TODAY));
+        assertEquals(DebtStatus.CREATED, status(before));
+        assertEquals(DebtStatus.OVERDUE, status(after));
+
+        assertEquals(1, overdueSweepService.sweep(TODAY));
+        assertEquals(DebtStatus.OVERDUE, status(before));
+    }
+
+    @Test
+    void sweep_DebtLockedByPaymentThatRollsBack_IsMarkedByNextSweep() throws Exception {
+
+        Long locked = save(DebtStatus.CREATED, TODAY.minusDays(40));
+        Long unlocked = save(DebtStatus.CREATED, TODAY.minusDays(10));
+
+        // A payment holds the row lock of the debt while the sweep runs on another connection, then rolls back
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try{
+            int marked = new TransactionTemplate(transactionManager).execute(status -> {
+                debtRepository.updateStatus(List.of(locked), DebtStatus.CREATED, LocalDateTime.now());
+                try{
+                    return executor.submit(() -> overdueSweepService.sweep(TODAY)).get();
+                }catch(Exception e){
+                    throw new IllegalStateException(e);
+                }finally{
+                    status.setRollbackOnly();
+                }
+            });
+
+            assertEquals(1, marked);
+        }finally{
+            executor.shutdown();
+        }
+        assertEquals(DebtStatus.CREATED, status(locked));
+        assertEquals(DebtStatus.OVERDUE, status(unlocked));
+
+        assertEquals(1, overdueSweepService.sweep(TODAY));
+        assertEquals(DebtStatus.OVERDUE, status(locked));
+    }
+
+    @Test
+    void sweep_LeaseHeldByAnotherNode_MarksNothing(){
+
+        lease("another-node", LocalDateTime.now().plusMinutes(5));
+        Long created = save(DebtStatus.CREATED, TODAY.minusDays(40));
+
+        assertEquals(0, overdueSweepService.sweep(TODAY));
+
+        assertEquals(DebtStatus.CREATED, status(created));
+        assertNull(jobLeaseRepository.findById(OverdueSweepService.JOB_NAME).orElseThrow().getCheckpointId());
+    }
+
+    private void lease(String owner, LocalDateTime leasedUntil){
+
+        JobLease lease = new JobLease();
+        lease.setName(OverdueSweepService.JOB_NAME);
+        lease.setOwner(owner);
+        lease.setLeasedUntil(leasedUntil);
+        jobLeaseRepository.save(lease);
+    }
+
+    private void checkpoint(LocalDate dueDate, Long id){
+
+        JobLease lease = jobLeaseRepository.findById(OverdueSweepService.JOB_NAME).orElseThrow();
+        lease.setCheckpointDueDate(dueDate);
+        lease.setCheckpointId(id);
+        jobLeaseRepository.save(lease);
+    }
+
+    private Long save(DebtStatus status, LocalDate dueDate){
+
+        Debt debt = new Debt();
+        debt.setCreditorName("Creditor");
+        debt.setTotalValue(BigDecimal.valueOf(600));
+        debt.setBalanceDue(BigDecimal.valueOf(600));
+        debt.setNumberOfInstallments(3);
+        debt.setStatus(status);
+        debt.setDueDate(dueDate);
+        debt.setCreatedAt(LocalDateTime.now());
+        debt.setUpdatedAt(LocalDateTime.now());
+        return debtRepository.save(debt).getId();
+    }
+
+    private DebtStatus status(Long id){
+        return debtRepository.findById(id).orElseThrow().getStatus();
+    }
+}
@@ -0,0 +1,111 @@
+package com.celcoin.credit.debts.service;
+
+import com.celcoin.credit.debts.entity.Debt;
+import com.celcoin.credit.debts.entity.Installment;
+import com.celcoin.credit.debts.mapper.DebtMapper;
+import com.celcoin.credit.debts.repository.ReactiveDebtRepository;
+import com.celcoin.credit.debts.valueobject.DebtFilter;
+import com.celcoin.credit.debts.valueobject.DebtPage;
+import com.celcoin.credit.debts.valueobject.DebtResponsePage;
+import com.celcoin.credit.debts.valueobject.DebtSort;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.postgresql.PostgresqlConnectionConfiguration;
+import io.r2dbc.postgresql.PostgresqlConnectionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Reads the same debts through JPA and R2DBC and compares the JSON both stacks write. Skipped when Docker is not
+ * available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(properties = {
+        "bu-credit.interest-rate=5",
+        "spring.datasource.hikari.schema=bu_credit_schema",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({DebtService.class, DebtMetrics.class, SimpleMeterRegistry.class})
+public class ReactiveDebtServiceTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:13.1-alpine");
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                                                                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Autowired
+    private DebtService debtService;
+
+    @Test
+    void getDebtAndGetDebts_SameDebts_WriteSameJsonAsJpa() throws Exception {
+
+        for(int i = 0; i < 3; i++){
+            Debt debt = new Debt();
+            debt.setCreditorName("Creditor " + i);
+            debt.setTotalValue(BigDecimal.valueOf(600));
+            debt.setNumberOfInstallments(3);
+            debt.setDueDate(LocalDate.now().plusDays(i + 1));
+            Long id = debtService.registerDebt(debt).getId();
+
+            for(int j = 0; j < i; j++){
+                Installment installment = new Installment();
+                installment.setValue(BigDecimal.valueOf(200));
+                debtService.payInstallment(id, installment);
+            }
+        }
+
+        PostgresqlConnectionFactory connectionFactory = new PostgresqlConnectionFactory(
+                PostgresqlConnectionConfiguration.builder()
+                                                 .host(postgres.getHost())
+                                                 .port(postgres.getFirstMappedPort())
+                                                 .database(postgres.getDatabaseName())
+                                                 .username(postgres.getUsername())
+                                                 .password(postgres.getPassword())
+                                                 .schema("bu_credit_schema")
+                                                 .build());
+        ReactiveDebtService reactiveDebtService = new ReactiveDebtService(
+                new ReactiveDebtRepository(DatabaseClient.create(connectionFactory)));
+
+        for(DebtSort sort : DebtSort.values()){
+            DebtPage page = debtService.getDebts(new DebtFilter(), sort, null, 2);
+            DebtResponsePage reactivePage = reactiveDebtService.getDebts(new DebtFilter(), sort, null, 2).block();
+
+            assertEquals(objectMapper.writeValueAsString(page.getDebts().stream().map(DebtMapper::toDebtResponse).toList()),
+                         objectMapper.writeValueAsString(reactivePage.getDebts()), sort.getParameter());
+            assertEquals(page.getNextCursor().encode(), reactivePage.getNextCursor().encode(), sort.getParameter());
+
+            DebtPage nextPage = debtService.getDebts(new DebtFilter(), sort, page.getNextCursor(), 2);
+            DebtResponsePage reactiveNextPage = reactiveDebtService.getDebts(new DebtFilter(), sort,
+                                                                             reactivePage.getNextCursor(), 2).block();
+
+            assertEquals(objectMapper.writeValueAsString(nextPage.getDebts().stream().map(DebtMapper::toDebtResponse).toList()),
+                         objectMapper.writeValueAsString(reactiveNextPage.getDebts()), sort.getParameter());
+        }
+
+        DebtPage page = debtService.getDebts(new DebtFilter(), DebtSort.DUE_DATE, null, 2);
+
+        Long lastId = page.getDebts().get(1).getId();
+        assertEquals(objectMapper.writeValueAsString(DebtMapper.toDebtResponse(debtService.getDebt(lastId))),
+                     objectMapper.writeValueAsString(reactiveDebtService.getDebt(lastId).block()));
+    }
+}
@@ -0,0 +1,121 @@
+package com.celcoin.credit.debts.service;
+
+import com.celcoin.credit.debts.entity.Debt;
+import com.celcoin.credit.debts.entity.Installment;
+import com.celcoin.credit.debts.valueobject.DebtFilter;
+import com.celcoin.credit.debts.valueobject.DebtSort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs reads and payments on many more virtual threads than pooled connections and records, with JFR, every time a
+ * virtual thread blocks while pinned to its carrier. Pinning inside the PostgreSQL driver or Hikari would hold carrier
+ * threads for the whole JDBC call and defeat the virtual thread mode. Skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(properties = {
+        "bu-credit.interest-rate=5",
+        "spring.datasource.hikari.schema=bu_credit_schema",
+        "spring.datasource.hikari.maximum-pool-size=4",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({DebtService.class, DebtMetrics.class, SimpleMeterRegistry.class})
+public class VirtualThreadPinningTest {
+
+    private static final int TASKS = 200;
+    private static final List<String> JDBC_PACKAGES = List.of("org.postgresql.", "com.zaxxer.hikari.");
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:13.1-alpine");
+
+    @Autowired
+    private DebtService debtService;
+
+    @Test
+    void jdbcCalls_OnVirtualThreads_DoNotPinCarrierThreads() throws Exception {
+
+        Debt debt = new Debt();
+        debt.setCreditorName("Creditor");
+        debt.setTotalValue(BigDecimal.valueOf(TASKS * 100L));
+        debt.setNumberOfInstallments(TASKS);
+        debt.setDueDate(LocalDate.now().plusYears(1));
+        Long debtId = debtService.registerDebt(debt).getId();
+
+        List<RecordedEvent> pinnedEvents = new CopyOnWriteArrayList<>();
+
+        try(RecordingStream recording = new RecordingStream()){
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.onEvent("jdk.VirtualThreadPinned", pinnedEvents::add);
+            recording.startAsync();
+
+            try(ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()){
+                List<Future<?>> tasks = new ArrayList<>();
+                for(int i = 0; i < TASKS; i++){
+                    tasks.add(executor.submit(() -> {
+                        debtService.getDebt(debtId);
+                        debtService.getDebts(new DebtFilter(), DebtSort.DUE_DATE, null, 50);
+
+                        Installment installment = new Installment();
+                        installment.setValue(BigDecimal.valueOf(100));
+                        debtService.payInstallment(debtId, installment);
+                    }));
+                }
+                for(Future<?> task : tasks){
+                    task.get();
+                }
+            }
+
+            // Events are delivered asynchronously, stopping flushes the ones still buffered
+            recording.stop();
+        }
+
+        List<String> jdbcPinnings = pinnedEvents.stream()
+                                                .filter(VirtualThreadPinningTest::isInJdbcPath)
+                                                .map(VirtualThreadPinningTest::describe)
+                                                .collect(Collectors.toList());
+
+        assertTrue(jdbcPinnings.isEmpty(), "virtual threads pinned in the JDBC path:\n" + String.join("\n\n", jdbcPinnings));
+    }
+
+    private static boolean isInJdbcPath(RecordedEvent event){
+        return event.getStackTrace() != null &&
+               event.getStackTrace().getFrames().stream()
+                    .anyMatch(frame -> JDBC_PACKAGES.stream().anyMatch(frame.getMethod().getType().getName()::startsWith));
+    }
+
+    private static String describe(RecordedEvent event){
+        return event.getStackTrace().getFrames().stream()
+                    .map(RecordedFrame::getMethod)
+                    .map(method -> method.getType().getName() + "." + method.getName())
+                    .collect(Collectors.joining("\n  at ", "pinned for " + event.getDuration() + "\n  at ", ""));
+    }
+}
@@ -0,0 +1,139 @@
+package com.celcoin.credit.debts.specification;
+
+import com.celcoin.credit.debts.entity.Debt;
+import com.celcoin.credit.debts.repository.DebtRepository;
+import com.celcoin.credit.debts.valueobject.DebtCursor;
+import com.celcoin.credit.debts.valueobject.DebtFilter;
+import com.celcoin.credit.debts.valueobject.DebtSort;
+import com.celcoin.credit.debts.valueobject.DebtStatus;
+import com.celcoin.credit.debts.valueobject.NameMatch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.celcoin.credit.debts.specification.DebtSpecification.hasCreditorName;
+import static com.celcoin.credit.debts.specification.DebtSpecification.isAfter;
+import static com.celcoin.credit.debts.specification.DebtSpecification.matches;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true"
+})
+public class DebtSpecificationTest {
+
+    private static final LocalDate DUE_DATE = LocalDate.of(2030, 4, 25);
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Autowired
+    private DebtRepository debtRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void setup(){
+
+        // Due dates, creation times and balances repeat, so pages break ties by id
+        List<String> names = List.of("Maria Silva", "maria souza", "Pedro Maria", "Ana 100% Silva", "Ana_Silva");
+        for(int i = 0; i < names.size(); i++){
+            Debt debt = new Debt();
+            debt.setCreditorName(names.get(i));
+            debt.setTotalValue(BigDecimal.valueOf(600));
+            debt.setBalanceDue(BigDecimal.valueOf(100L * (i % 3)));
+            debt.setNumberOfInstallments(3);
+            debt.setStatus(DebtStatus.CREATED);
+            debt.setDueDate(DUE_DATE.plusDays(i % 2));
+            debt.setCreatedAt(CREATED_AT.plusDays(i / 2));
+            debt.setUpdatedAt(LocalDateTime.now());
+            entityManager.persist(debt);
+        }
+
+        entityManager.flush();
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "EXACT       | Maria Silva | Maria Silva",
+            "EXACT       | maria silva | ''",
+            "IGNORE_CASE | MARIA SILVA | Maria Silva",
+            "PREFIX      | maria       | Maria Silva,maria souza",
+            "CONTAINS    | MARIA       | Maria Silva,maria souza,Pedro Maria",
+            "CONTAINS    | 100%        | Ana 100% Silva",
+            "PREFIX      | ana_        | Ana_Silva",
+            "CONTAINS    | %           | Ana 100% Silva"
+    })
+    void hasCreditorName_MatchMode_FindsMatchingNames(NameMatch match, String creditorName, String expected){
+
+        List<String> names = debtRepository.findAll(hasCreditorName(creditorName, match))
+                                           .stream()
+                                           .map(Debt::getCreditorName)
+                                           .sorted(String.CASE_INSENSITIVE_ORDER)
+                                           .toList();
+
+        assertEquals(expected.isEmpty() ? List.of() : List.of(expected.split(",")), names);
+    }
+
+    @Test
+    void matches_RangeFilters_FindsDebtsWithinBounds(){
+
+        DebtFilter filter = new DebtFilter();
+        filter.setDueDateFrom(DUE_DATE);
+        filter.setDueDateTo(DUE_DATE);
+        filter.setBalanceDueMin(BigDecimal.valueOf(100));
+        filter.setCreatedAfter(CREATED_AT);
+
+        // Due on DUE_DATE with a balance of 100 or more, created after CREATED_AT
+        assertEquals(List.of("Pedro Maria", "Ana_Silva"), names(matches(filter), Sort.by("id")));
+
+        filter = new DebtFilter();
+        filter.setBalanceDueMax(BigDecimal.ZERO);
+        assertEquals(List.of("Maria Silva", "Ana 100% Silva"), names(matches(filter), Sort.by("id")));
+    }
+
+    @ParameterizedTest
+    @EnumSource(DebtSort.class)
+    void isAfter_PagesInAnyOrder_VisitEveryDebtOnceInSortOrder(DebtSort sort){
+
+        List<Debt> all = debtRepository.findAll(sort.toSort());
+        List<Debt> paged = new ArrayList<>();
+        DebtCursor cursor = null;
+
+        do{
+            DebtCursor after = cursor;
+            List<Debt> page = debtRepository.findBy(isAfter(after), query -> query.sortBy(sort.toSort()).limit(2).all());
+            paged.addAll(page);
+
+            Debt last = page.isEmpty() ? null : page.get(page.size() - 1);
+            cursor = page.size() < 2 ? null : new DebtCursor(sort, key(last, sort), last.getId());
+        }while(cursor != null);
+
+        assertEquals(all.stream().map(Debt::getId).toList(), paged.stream().map(Debt::getId).toList());
+        assertEquals(5, paged.size());
+    }
+
+    private List<String> names(Specification<Debt> specification, Sort sort){
+        return debtRepository.findAll(specification, sort).stream().map(Debt::getCreditorName).toList();
+    }
+
+    private static Comparable<?> key(Debt debt, DebtSort sort){
+        return switch(sort.getAttribute()){
+            case "dueDate" -> debt.getDueDate();
+            case "createdAt" -> debt.getCreatedAt();
+            default -> debt.getBalanceDue();
+        };
+    }
+}
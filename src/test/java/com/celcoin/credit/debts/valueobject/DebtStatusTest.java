@@ -0,0 +1,48 @@
+package com.celcoin.credit.debts.valueobject;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DebtStatusTest {
+
+    private static final Pattern STATUS_ROW = Pattern.compile("\\((\\d+),\\s*'(\\w+)'\\)");
+
+    @Test
+    void values_MatchStatusTableRows() throws Exception {
+
+        String sql = new ClassPathResource("db/migration/V2__insert_statuses.sql").getContentAsString(StandardCharsets.UTF_8)
+                + new ClassPathResource("db/migration/V6__add_overdue_status_and_job_leases.sql").getContentAsString(StandardCharsets.UTF_8);
+
+        Map<Integer, String> rows = new HashMap<>();
+        Matcher matcher = STATUS_ROW.matcher(sql);
+        while(matcher.find()){
+            rows.put(Integer.valueOf(matcher.group(1)), matcher.group(2));
+        }
+
+        assertEquals(rows.size(), DebtStatus.values().length);
+        for(DebtStatus status : DebtStatus.values()){
+            assertEquals(rows.get(status.getId()), status.name());
+        }
+    }
+
+    @Test
+    void fromId_UnknownId_ThrowsIllegalArgumentException(){
+
+        assertThrows(IllegalArgumentException.class, () -> DebtStatus.fromId(99));
+    }
+
+    @Test
+    void findById_UnknownId_ReturnsEmpty(){
+
+        assertTrue(DebtStatus.findById(0).isEmpty());
+        assertTrue(DebtStatus.findById(null).isEmpty());
+    }
+}